@@ -0,0 +1,290 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+/**
+ * Splits a single command line argument into its parts in one pass over its
+ * characters: the kind of the argument (option, short option or parameter, given
+ * by its prefix), the name and the value after the first
+ * {@link CommandOPTools#ITEM_VALUE_SEPARATOR}.<br />
+ * <br />
+ * The scanner only stores the positions of the parts. It can be reused for
+ * any number of arguments, but it is not thread safe.<br />
+ * <br />
+ * If the case is folded while scanning, the lower case name of an option or
+ * parameter is created in the same pass (short options are never folded).
+ * The folded name is only created if the name contains upper case characters.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class ArgumentScanner {
+
+	public static final int PARAMETER = 0;
+	public static final int OPTION = 1;
+	public static final int SHORTOPTION = 2;
+
+	private static final char PREFIX_CHAR = CommandOPTools.OPTIONSPREFIX_SHORT.charAt(0);
+	private static final char SEPARATOR_CHAR = CommandOPTools.ITEM_VALUE_SEPARATOR.charAt(0);
+
+	/** The names of the short options with ASCII characters */
+	private static final String[] SHORT_NAMES = new String[128];
+
+	static {
+		for (char c = 0; c < SHORT_NAMES.length; c++) {
+			SHORT_NAMES[c] = String.valueOf(c);
+		}
+	}
+
+	private String arg = null;
+
+	private int kind = PARAMETER;
+	private int nameStart = 0;
+	private int nameEnd = 0;
+	private int valueStart = -1;
+
+	private String foldedName = null;
+
+
+	/**
+	 * Scans the given argument. The parts can be retrieved afterwards with the
+	 * getter methods.
+	 *
+	 * @param arg
+	 */
+	public void scan(String arg) {
+		scan(arg, false);
+	}
+
+	/**
+	 * Scans the given argument. The parts can be retrieved afterwards with the
+	 * getter methods.
+	 *
+	 * @param arg
+	 * @param foldCase If set to true, the name of an option or parameter is
+	 * also converted to lower case (see {@link #getFoldedName()})
+	 */
+	public void scan(String arg, boolean foldCase) {
+		this.arg = arg;
+
+		int length = arg.length();
+
+		if (length > 1 && arg.charAt(0) == PREFIX_CHAR && arg.charAt(1) == PREFIX_CHAR) {
+			kind = OPTION;
+			nameStart = 2;
+		} else if (length > 0 && arg.charAt(0) == PREFIX_CHAR) {
+			kind = SHORTOPTION;
+			nameStart = 1;
+		} else {
+			kind = PARAMETER;
+			nameStart = 0;
+		}
+
+		nameEnd = length;
+		valueStart = -1;
+		foldedName = null;
+
+		boolean fold = foldCase && kind != SHORTOPTION;
+		char[] folded = null;
+
+		for (int i = nameStart; i < length; i++) {
+			char c = arg.charAt(i);
+
+			if (c == SEPARATOR_CHAR) {
+				nameEnd = i;
+				valueStart = i + 1;
+				break;
+			}
+
+			if (fold) {
+				char lower = Character.toLowerCase(c);
+
+				if (folded == null && lower != c) {
+					//First upper case character. The characters before are
+					//already lower case.
+					folded = new char[length - nameStart];
+					arg.getChars(nameStart, i, folded, 0);
+				}
+
+				if (folded != null) {
+					folded[i - nameStart] = lower;
+				}
+			}
+		}
+
+		if (folded != null) {
+			foldedName = new String(folded, 0, nameEnd - nameStart);
+		}
+
+	}
+
+	/**
+	 * Returns the name of a short option with the given character. For ASCII
+	 * characters, the same string instance is returned every time.
+	 *
+	 * @param c
+	 * @return
+	 */
+	public static String getShortName(char c) {
+		if (c < SHORT_NAMES.length) {
+			return SHORT_NAMES[c];
+		}
+
+		return String.valueOf(c);
+	}
+
+	/**
+	 * Converts the given name to lower case, the same way the names are
+	 * folded while scanning
+	 *
+	 * @param name
+	 * @return The lower case name, or the given name if it is already in lower case
+	 */
+	public static String foldCase(String name) {
+		int length = name.length();
+
+		for (int i = 0; i < length; i++) {
+			if (Character.toLowerCase(name.charAt(i)) != name.charAt(i)) {
+				char[] folded = name.toCharArray();
+
+				for (int j = i; j < length; j++) {
+					folded[j] = Character.toLowerCase(folded[j]);
+				}
+
+				return new String(folded);
+			}
+		}
+
+		return name;
+	}
+
+	/**
+	 * Returns the last scanned argument
+	 *
+	 * @return
+	 */
+	public String getArg() {
+		return arg;
+	}
+
+	/**
+	 * Returns the kind of the scanned argument, {@link #OPTION},
+	 * {@link #SHORTOPTION} or {@link #PARAMETER}
+	 *
+	 * @return
+	 */
+	public int getKind() {
+		return kind;
+	}
+
+	/**
+	 * The position of the first character of the name (right after the prefix)
+	 *
+	 * @return
+	 */
+	public int getNameStart() {
+		return nameStart;
+	}
+
+	/**
+	 * The position right after the last character of the name
+	 *
+	 * @return
+	 */
+	public int getNameEnd() {
+		return nameEnd;
+	}
+
+	/**
+	 * The position of the first character of the value, or -1 if the argument
+	 * does not contain a value separator
+	 *
+	 * @return
+	 */
+	public int getValueStart() {
+		return valueStart;
+	}
+
+	/**
+	 * Returns true if the argument contains a value separator (the value
+	 * might still be an empty string)
+	 *
+	 * @return
+	 */
+	public boolean hasValue() {
+		return valueStart >= 0;
+	}
+
+	/**
+	 * Returns the name of the scanned argument, without prefix and value
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return arg.substring(nameStart, nameEnd);
+	}
+
+	/**
+	 * Returns the value of the scanned argument, or null if there is no
+	 * value separator
+	 *
+	 * @return
+	 */
+	public String getValue() {
+		if (valueStart < 0) {
+			return null;
+		}
+
+		return arg.substring(valueStart);
+	}
+
+	/**
+	 * Returns the lower case name of the scanned argument, if the case has been
+	 * folded while scanning and if the name contains upper case characters
+	 *
+	 * @return The lower case name, or null if the name is already in lower case
+	 * (or has not been folded)
+	 */
+	public String getFoldedName() {
+		return foldedName;
+	}
+
+	/**
+	 * Returns the name of the scanned argument as slice of the argument,
+	 * without copying the characters
+	 *
+	 * @return
+	 */
+	public CharSequence getNameSlice() {
+		return new ArgumentSlice(arg, nameStart, nameEnd);
+	}
+
+	/**
+	 * Returns the value of the scanned argument as slice of the argument
+	 * without copying the characters, or null if there is no value separator
+	 *
+	 * @return
+	 */
+	public CharSequence getValueSlice() {
+		if (valueStart < 0) {
+			return null;
+		}
+
+		return new ArgumentSlice(arg, valueStart, arg.length());
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+/**
+ * A view of a part of a command line argument, given by the start and end
+ * position within the argument string. No characters are copied, a new string
+ * is only created with {@link #toString()}.<br />
+ * <br />
+ * The hash code is the same as the one of a {@link String} with the same
+ * characters, and a slice is equal to any {@link CharSequence} with the same
+ * characters. A slice can therefore be used as key to look up items in maps
+ * which use strings as keys (the key given to the lookup method is the one
+ * on which equals is called). The opposite direction does not work, since a
+ * {@link String} is never equal to a slice.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class ArgumentSlice implements CharSequence {
+
+	private final String arg;
+	private final int start;
+	private final int end;
+
+	private int hash = 0;
+
+
+	/**
+	 *
+	 * @param arg The argument string
+	 * @param start The position of the first character of the slice
+	 * @param end The position after the last character of the slice
+	 */
+	protected ArgumentSlice(String arg, int start, int end) {
+		this.arg = arg;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - start) {
+			throw new StringIndexOutOfBoundsException(index);
+		}
+
+		return arg.charAt(start + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length() || start > end) {
+			throw new StringIndexOutOfBoundsException("Invalid range " + start + ".." + end);
+		}
+
+		return new ArgumentSlice(arg, this.start + start, this.start + end);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+
+		if (h == 0) {
+			for (int i = start; i < end; i++) {
+				h = 31 * h + arg.charAt(i);
+			}
+
+			hash = h;
+		}
+
+		return h;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+
+		if (!(obj instanceof CharSequence)) {
+			return false;
+		}
+
+		CharSequence other = (CharSequence)obj;
+		int length = end - start;
+
+		if (other.length() != length) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (arg.charAt(start + i) != other.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		if (start == 0 && end == arg.length()) {
+			return arg;
+		}
+
+		return arg.substring(start, end);
+	}
+
+}
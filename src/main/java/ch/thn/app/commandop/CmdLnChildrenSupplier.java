@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+/**
+ * Creates the child items of an item when they are needed for the first
+ * time, instead of when the definition is created. See
+ * {@link CmdLnParameter#setChildrenSupplier(CmdLnChildrenSupplier)}.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public interface CmdLnChildrenSupplier {
+
+	/**
+	 * Adds the child items to the given item, with the addParameter-methods
+	 * of the item. This method is called at most once per item.
+	 *
+	 * @param item The item to which the children belong
+	 */
+	public void addChildren(CmdLnParameter item);
+
+}
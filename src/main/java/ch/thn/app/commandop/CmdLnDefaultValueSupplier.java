@@ -0,0 +1,39 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop;
+
+/**
+ * Computes the default value of an item when it is needed for the first
+ * time, instead of when the definition is created. See
+ * {@link CmdLnParameter#setDefaultValueSupplier(CmdLnDefaultValueSupplier, String)}.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public interface CmdLnDefaultValueSupplier {
+
+	/**
+	 * Returns the default value of the given item. This method is called at
+	 * most once per item, even if the default value is needed by several
+	 * threads at the same time.
+	 *
+	 * @param item The item to which the default value belongs
+	 * @return The default value, or null for no default value
+	 */
+	public String getDefaultValue(CmdLnParameter item);
+
+}
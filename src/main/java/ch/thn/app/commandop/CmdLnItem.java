@@ -19,10 +19,13 @@ package ch.thn.app.commandop;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import ch.thn.app.commandop.converter.CommandOPConverter;
 import ch.thn.app.commandop.validator.CommandOPValidator;
 
 /**
@@ -41,43 +44,160 @@ public abstract class CmdLnItem {
 	public static String SHORTOPTION_PREFIX = "-";
 	public static String PARAMETER_PREFIX = "";
 
+	/** The types of values, see {@link #getValueType()} */
+	protected static final int TYPE_STRING = 0;
+	protected static final int TYPE_BOOLEAN = 1;
+	protected static final int TYPE_INT = 2;
+	protected static final int TYPE_LONG = 3;
+	protected static final int TYPE_DOUBLE = 4;
+	protected static final int TYPE_ENUM = 5;
+
+	/** The flags of an item, see {@link #hasFlag(int)} */
+	protected static final int FLAG_MANDATORY = 1;
+	protected static final int FLAG_OPTION = 1 << 1;
+	protected static final int FLAG_SHORTOPTION = 1 << 2;
+	protected static final int FLAG_PARAMETER = 1 << 3;
+	protected static final int FLAG_BOOLEAN = 1 << 4;
+	protected static final int FLAG_VALUE_REQUIRED = 1 << 5;
+	protected static final int FLAG_HIDDEN_IN_PRINT = 1 << 6;
+	protected static final int FLAG_MULTI_VALUE = 1 << 7;
+	protected static final int FLAG_FIRST_OCCURRENCE = 1 << 8;
+	protected static final int FLAG_REPEATABLE = 1 << 9;
+	/** The values are stored in a {@link CompactValueList} */
+	protected static final int FLAG_COMPACT_VALUES = 1 << 10;
+
+	/**
+	 * The children of all the items without children. Replaced by a map of
+	 * the item itself when the first child is added.
+	 */
+	private static final LinkedHashMap<String, CmdLnValue> NO_CHILDREN = new LinkedHashMap<String, CmdLnValue>(1) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public CmdLnValue put(String key, CmdLnValue value) {
+			throw new UnsupportedOperationException("Children have to be added through the item.");
+		}
+
+		@Override
+		public void putAll(Map<? extends String, ? extends CmdLnValue> m) {
+			throw new UnsupportedOperationException("Children have to be added through the item.");
+		}
+	};
+
+	/** What happens to a value which a multi value item already has, see {@link CmdLnParameter#setDuplicateValues(int)} */
+	public static final int DUPLICATES_DROP = 0;
+	public static final int DUPLICATES_KEEP = 1;
+	public static final int DUPLICATES_REJECT = 2;
+
 	private CmdLnItem parent = null;
-	private CmdLnItem aliasOf = null;	//The item of which this item is the alias of
+	private CommandOP root = null;		//The CommandOP object at the top of the tree
 
 	protected CommandOPValidator validator = null;
 
 	/**
-	 * Only the aliases for easier access to them.
+	 * The names of the aliases of this item, and the names of its short aliases
+	 * (see {@link CmdLnOption#addShortAlias(Character)}). The aliases themselves
+	 * are only entries in the lookup maps of the parent, which point directly
+	 * at this item. Created when the first alias is added.
+	 */
+	private LinkedHashSet<String> alias = null;
+	private LinkedHashSet<String> shortAlias = null;
+
+	/**
+	 * All child items. The aliases of the children are not included. Items
+	 * without children share an empty map which can not be changed.
+	 */
+	public LinkedHashMap<String, CmdLnValue> children = NO_CHILDREN;
+
+	/**
+	 * The aliases of the children, with the child they stand for. Created
+	 * when the first alias is added.
+	 */
+	private LinkedHashMap<String, CmdLnValue> childAliases = null;
+
+	/**
+	 * Creates the children when they are needed for the first time. Set
+	 * back to null once the children have been created.
+	 */
+	private CmdLnChildrenSupplier childrenSupplier = null;
+
+	/**
+	 * The lookup index of the children, which is created when it is needed
+	 * and dropped when children are added
+	 */
+	private ItemIndex childIndex = null;
+
+	/**
+	 * The lookup index of all the items which can follow this item on the
+	 * command line, and the definition version of the root it has been created for
 	 */
-	protected LinkedHashMap<String, CmdLnItem> alias = null;
+	private ItemIndex resolutionIndex = null;
+	private int resolutionVersion = -1;
 
 	/**
-	 * All child items. This also includes aliases.
+	 * The names of the items which can follow this item, for suggestions.
+	 * Only created when an unknown name follows this item.
 	 */
-	public LinkedHashMap<String, CmdLnValue> children = null;
+	private volatile SuggestionIndex suggestionIndex = null;
+	private volatile int suggestionVersion = -1;
 
 	private String description = null;
 	private String name = null;
 	private String defaultValue = null;
+
+	/**
+	 * Computes the default value when it is needed for the first time, and
+	 * the text which is printed instead until then. The supplier is set
+	 * back to null once the default value has been computed.
+	 */
+	private volatile CmdLnDefaultValueSupplier defaultValueSupplier = null;
+	private String defaultValuePlaceholder = null;
 	protected String typeString = null;
 
-	private LinkedList<String> values = null;
+	/**
+	 * The parsing state (values, parsed flag...) of this item when it is parsed
+	 * through {@link CommandOP#parse(List, boolean)}. Created when it is needed,
+	 * thus items which are only parsed through a compiled schema do not have one.
+	 */
+	private CmdLnItemState state = null;
+
+	/** The FLAG_ bits which are set for this item */
+	private int flags = 0;
+
+	/**
+	 * Receives the values instead of the state, for streaming multi value items
+	 * (see {@link CmdLnParameter#setAsStreamingMultiValueItem(CmdLnValueConsumer)})
+	 */
+	private CmdLnValueConsumer valueConsumer = null;
+
+	/** One of the DUPLICATES_ constants */
+	protected int duplicateValues = DUPLICATES_DROP;
+
+	/**
+	 * The type of the values. Values of a type other than {@link #TYPE_STRING}
+	 * are converted once when they are set and are also stored in primitive form.
+	 */
+	private int valueType = TYPE_STRING;
+	private Class<? extends Enum<?>> enumType = null;
+	private long typedDefaultValue = 0;
+
+	/**
+	 * The converter of the values. The converted values are stored along with
+	 * the values, the default value is converted once when the converter is set.
+	 */
+	private CommandOPConverter<?> converter = null;
+	private Object convertedDefaultValue = null;
 
-	private boolean isParsed = false;
-	protected boolean isMandatory = false;
-	private boolean isOption = false;
-	private boolean isShortOption = false;
-	private boolean isParameter = false;
-	protected boolean isBoolean = false;
-	protected boolean isValueRequired = false;
-	private boolean isHiddenInPrint = false;
-	protected boolean isMultiValueItem = false;
-	protected boolean useFirstOccurrence = false;
+	/**
+	 * The repeatable option this item belongs to (the item itself or one
+	 * of the items above it), or null
+	 */
+	private CmdLnItem repeatableBlock = null;
 
 	private int level = 0;
 	protected int multiValueMin = 0;
 	protected int multiValueMax = 0;
-	private int cmdLnPos = 0;
+	private int index = -1;
 
 
 	/**
@@ -91,9 +211,9 @@ public abstract class CmdLnItem {
 		this.defaultValue = defaultValue;
 		this.description = description;
 
-		values = new LinkedList<>();
-		children = new LinkedHashMap<>();
-		alias = new LinkedHashMap<>();
+		if (this instanceof CommandOP) {
+			root = (CommandOP) this;
+		}
 
 	}
 
@@ -128,9 +248,9 @@ public abstract class CmdLnItem {
 	 *
 	 */
 	protected void reset() {
-		values.clear();
-
-		isParsed = false;
+		if (state != null) {
+			state.reset();
+		}
 	}
 
 	/**
@@ -177,6 +297,100 @@ public abstract class CmdLnItem {
 		return level;
 	}
 
+	/**
+	 * Returns the {@link CommandOP} object at the top of the tree this item
+	 * belongs to, or null if the item has not been added to a tree yet
+	 *
+	 * @return
+	 */
+	protected CommandOP getRoot() {
+		return root;
+	}
+
+	/**
+	 * Sets the index of this item within its compiled schema. The index
+	 * is used to address the parsing state of this item in a {@link CommandOPResult}.
+	 *
+	 * @param index
+	 */
+	protected void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * Returns the index of this item within its compiled schema, or -1
+	 * if the item has not been compiled yet
+	 *
+	 * @return
+	 */
+	protected int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the parsing state of this item which is used when parsing
+	 * through {@link CommandOP#parse(List, boolean)}. The state is reset
+	 * here if the root has been reset since the state has been used the last
+	 * time (see {@link CommandOP#reset()}), thus a reset only costs something
+	 * for the items which are used again.
+	 *
+	 * @return
+	 */
+	protected CmdLnItemState getState() {
+		if (state == null) {
+			state = new CmdLnItemState();
+
+			if (hasFlag(FLAG_COMPACT_VALUES)) {
+				state.setCompactValues();
+			}
+		}
+
+		if (root != null && state.generation != root.getGeneration()) {
+			state.reset();
+			state.generation = root.getGeneration();
+		}
+
+		return state;
+	}
+
+	/**
+	 * Returns the parsing state of this item like {@link #getState()}, but
+	 * without creating or resetting it. Reading the values of an item thus
+	 * never changes the item, which is shared by all the threads parsing with
+	 * the schema once the definition is compiled. An unparsed state is returned
+	 * if the item has no state or if the root has been reset since the state
+	 * has been used the last time.
+	 *
+	 * @return
+	 */
+	protected CmdLnItemState peekState() {
+		CmdLnItemState current = state;
+
+		if (current == null || root != null && current.generation != root.getGeneration()) {
+			return CmdLnItemState.UNPARSED;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Makes sure that the definition of this item can still be changed. Once
+	 * the tree has been compiled into a {@link CommandOPSchema}, its definition
+	 * is immutable. Every method which changes the definition calls this method
+	 * first, thus the root is also told here that its definition changes.
+	 *
+	 * @throws CommandOPError if the tree of this item has been compiled
+	 */
+	protected void checkDefinitionChangeable() {
+		if (root != null) {
+			if (root.isCompiled()) {
+				throw new CommandOPError("The definition has been compiled into a schema and can not be changed anymore.");
+			}
+
+			root.definitionChanged();
+		}
+	}
+
 	/**
 	 * Adds the given items as children to this item
 	 *
@@ -184,15 +398,38 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnParameter addParameters(CmdLnParameter... items) {
+		checkDefinitionChangeable();
+
+		if (repeatableBlock != null) {
+			for (CmdLnParameter item : items) {
+				item.checkNoStreamingItems(repeatableBlock);
+			}
+		}
 
 		for (CmdLnParameter item : items) {
-			children.put(item.getName(), item);
+			addChild(item.getName(), item);
 			item.setParent(this);
 		}
 
+		childrenChanged();
+
 		return (CmdLnParameter) this;
 	}
 
+	/**
+	 * Puts the child into the children map, which is created for the first child
+	 *
+	 * @param name
+	 * @param child
+	 */
+	private void addChild(String name, CmdLnValue child) {
+		if (children == NO_CHILDREN) {
+			children = new LinkedHashMap<>();
+		}
+
+		children.put(name, child);
+	}
+
 	/**
 	 * Adds a new item with the given parameters to this item as child
 	 *
@@ -202,9 +439,14 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnParameter addParameter(String name, String defaultValue, String description) {
+		checkDefinitionChangeable();
+
 		CmdLnParameter child = new CmdLnParameter(name, defaultValue, description);
-		children.put(name, child);
+		addChild(name, child);
 		child.setParent(this);
+
+		childrenChanged();
+
 		return child;
 	}
 
@@ -220,26 +462,49 @@ public abstract class CmdLnItem {
 	}
 
 	/**
-	 * Sets an alias for this item. The alias can be used instead of
-	 * this item name.
+	 * Adds the name of an alias to the aliases of this item
 	 *
-	 * @param aliasOf
+	 * @param aliasName
+	 * @param isShortAlias
 	 */
-	protected void setAliasOf(CmdLnItem aliasOf) {
-		this.aliasOf = aliasOf;
+	protected void addAliasName(String aliasName, boolean isShortAlias) {
+		if (isShortAlias) {
+			if (shortAlias == null) {
+				shortAlias = new LinkedHashSet<String>();
+			}
+
+			shortAlias.add(aliasName);
+		} else {
+			if (alias == null) {
+				alias = new LinkedHashSet<String>();
+			}
+
+			alias.add(aliasName);
+		}
 	}
 
 	/**
-	 * Returns the item of which this item is the alias of
+	 * Adds an entry for the given alias name to the lookup map of the children,
+	 * which points to the given child
 	 *
-	 * @return
+	 * @param aliasName
+	 * @param child
 	 */
-	protected CmdLnItem getAliasOf() {
-		return aliasOf;
+	protected void addChildAlias(String aliasName, CmdLnValue child) {
+		checkDefinitionChangeable();
+
+		if (childAliases == null) {
+			childAliases = new LinkedHashMap<String, CmdLnValue>();
+		}
+
+		childAliases.put(aliasName, child);
+
+		childrenChanged();
 	}
 
 	/**
-	 * Recreates the level numbers for all children of this item
+	 * Recreates the level numbers (and the repeatable option block they
+	 * are in) for all children of this item
 	 */
 	protected void adjustLevel() {
 
@@ -249,6 +514,18 @@ public abstract class CmdLnItem {
 			level = 0;
 		}
 
+		if (hasFlag(FLAG_REPEATABLE)) {
+			repeatableBlock = this;
+		} else if (parent != null && !(parent instanceof CommandOP)) {
+			repeatableBlock = parent.getRepeatableBlock();
+		} else {
+			repeatableBlock = null;
+		}
+
+		if (parent != null) {
+			root = parent.getRoot();
+		}
+
 		for (CmdLnItem child : children.values()) {
 			child.adjustLevel();
 		}
@@ -263,7 +540,226 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean hasChild(String childName) {
-		return children.containsKey(childName);
+		return findChild(childName) != null;
+	}
+
+	/**
+	 * Returns the child with the given name or alias name, or null if
+	 * there is no such child
+	 *
+	 * @param childName
+	 * @return
+	 */
+	protected CmdLnValue findChild(String childName) {
+		CmdLnValue child = getChildrenInternal().get(childName);
+
+		if (child == null && childAliases != null) {
+			child = childAliases.get(childName);
+		}
+
+		return child;
+	}
+
+	/**
+	 * Returns the children and the aliases of the children, by their names.
+	 * If a name is used by a child and an alias, the child is kept.
+	 *
+	 * @return
+	 */
+	protected LinkedHashMap<String, CmdLnValue> getChildEntries() {
+		LinkedHashMap<String, CmdLnValue> children = getChildrenInternal();
+
+		if (childAliases == null) {
+			return children;
+		}
+
+		LinkedHashMap<String, CmdLnValue> entries = new LinkedHashMap<String, CmdLnValue>(children);
+
+		for (Map.Entry<String, CmdLnValue> entry : childAliases.entrySet()) {
+			if (!entries.containsKey(entry.getKey())) {
+				entries.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Returns the lookup index of the children. The index is created if
+	 * it does not exist yet.
+	 *
+	 * @return
+	 */
+	protected ItemIndex getChildIndex() {
+		boolean ignoreCase = (root != null && root.isIgnoreCase());
+		ItemIndex index = childIndex;
+
+		if (index == null || index.isFolded() != ignoreCase) {
+			LinkedHashMap<String, CmdLnValue> items = getChildEntries();
+			index = new ItemIndex(ignoreCase ? foldNames(items) : items, ignoreCase);
+			childIndex = index;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns a copy of the given items with the names in lower case, in the
+	 * same order. The names of short options are not changed. If several names
+	 * have the same lower case name, the first item is kept.
+	 *
+	 * @param items
+	 * @return
+	 */
+	protected static LinkedHashMap<String, CmdLnItem> foldNames(Map<String, ? extends CmdLnItem> items) {
+		LinkedHashMap<String, CmdLnItem> folded = new LinkedHashMap<String, CmdLnItem>();
+
+		for (Map.Entry<String, ? extends CmdLnItem> entry : items.entrySet()) {
+			String name = entry.getKey();
+
+			if (!entry.getValue().isShortOption()) {
+				name = ArgumentScanner.foldCase(name);
+			}
+
+			if (!folded.containsKey(name)) {
+				folded.put(name, entry.getValue());
+			}
+		}
+
+		return folded;
+	}
+
+	/**
+	 * Makes sure that none of the given items have names which only differ
+	 * in case (short options are not checked, since their case is not ignored)
+	 *
+	 * @param items
+	 * @param where A description of where the items are defined, for the error message
+	 * @throws CommandOPError if two names only differ in case
+	 */
+	protected static void checkCaseCollisions(Map<String, ? extends CmdLnItem> items, String where) {
+		HashMap<String, CmdLnItem> folded = new HashMap<String, CmdLnItem>();
+
+		for (Map.Entry<String, ? extends CmdLnItem> entry : items.entrySet()) {
+			CmdLnItem item = entry.getValue();
+
+			if (item.isShortOption()) {
+				continue;
+			}
+
+			CmdLnItem other = folded.put(ArgumentScanner.foldCase(entry.getKey()), item);
+
+			//Two names of the same item do not collide
+			if (other != null && other != item) {
+				throw new CommandOPError("The names '" + other.getName() + "' and '" + item.getName() + "' " + where
+						+ " only differ in case. They can not be told apart when the case is ignored.");
+			}
+		}
+	}
+
+	/**
+	 * Drops the lookup index of the children
+	 *
+	 */
+	private void childrenChanged() {
+		childIndex = null;
+	}
+
+	/**
+	 * Returns the lookup index of all the items which can be given after this
+	 * item on the command line, by their names. These are the children of this
+	 * item, and if a name is not a child, the children of the parent item, the
+	 * children of the parent's parent and so on up to the top level item. The
+	 * parameters of the {@link CommandOP} are only included for top level items.<br />
+	 * <br />
+	 * The index is created if it does not exist yet or if the definition of
+	 * the tree has changed since it has been created.
+	 *
+	 * @return
+	 */
+	protected ItemIndex getResolutionIndex() {
+		//Creating the children changes the definition version
+		materializeChildren();
+
+		int version = (root == null ? 0 : root.getDefinitionVersion());
+		ItemIndex index = resolutionIndex;
+
+		if (index == null || resolutionVersion != version) {
+			if (children.isEmpty() && parent != null && !(parent instanceof CommandOP)
+					&& !(parent.getParentInternal() instanceof CommandOP)) {
+				//Without children, the items which can follow are the same as
+				//the ones which can follow the parent item (as long as the
+				//parent is not a top level item)
+				index = parent.getResolutionIndex();
+			} else if (root != null && root.isIgnoreCase()) {
+				index = new ItemIndex(foldNames(getResolutionItems()), true);
+			} else {
+				index = new ItemIndex(getResolutionItems());
+			}
+
+			resolutionIndex = index;
+			resolutionVersion = version;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Collects all the items which can be given after this item on the
+	 * command line. See {@link #getResolutionIndex()}.
+	 *
+	 * @return
+	 */
+	private LinkedHashMap<String, CmdLnItem> getResolutionItems() {
+		LinkedHashMap<String, CmdLnItem> items = new LinkedHashMap<String, CmdLnItem>();
+
+		addResolutionItems(items, this);
+
+		CmdLnItem ancestor = parent;
+
+		while (ancestor != null) {
+			addResolutionItems(items, ancestor);
+			ancestor = ancestor.getParent();
+		}
+
+		return items;
+	}
+
+	/**
+	 * Returns the index of the names of all the items which can be given after
+	 * this item on the command line, to suggest names for an unknown name. The
+	 * index is created if it does not exist yet or if the definition of the tree
+	 * has changed since it has been created.
+	 *
+	 * @return
+	 */
+	protected SuggestionIndex getSuggestionIndex() {
+		int version = (root == null ? 0 : root.getDefinitionVersion());
+		SuggestionIndex index = suggestionIndex;
+
+		if (index == null || suggestionVersion != version) {
+			index = new SuggestionIndex(getResolutionItems().keySet(), root != null && root.isIgnoreCase());
+
+			suggestionIndex = index;
+			suggestionVersion = version;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Adds the children of the given item to the given items, unless an item
+	 * with the same name is already in the map
+	 *
+	 * @param items
+	 * @param item
+	 */
+	private static void addResolutionItems(LinkedHashMap<String, CmdLnItem> items, CmdLnItem item) {
+		for (Map.Entry<String, CmdLnValue> entry : item.getChildEntries().entrySet()) {
+			if (!items.containsKey(entry.getKey())) {
+				items.put(entry.getKey(), entry.getValue());
+			}
+		}
 	}
 
 	/**
@@ -272,7 +768,45 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean hasChildren() {
-		return !children.isEmpty();
+		return !getChildrenInternal().isEmpty();
+	}
+
+	/**
+	 * Sets the supplier which creates the children of this item when they
+	 * are needed for the first time
+	 *
+	 * @param childrenSupplier
+	 * @return
+	 */
+	protected CmdLnItem setChildrenSupplier(CmdLnChildrenSupplier childrenSupplier) {
+		checkDefinitionChangeable();
+
+		this.childrenSupplier = childrenSupplier;
+		return this;
+	}
+
+	/**
+	 * Returns true if the children of this item are still to be created
+	 * by its children supplier
+	 *
+	 * @return
+	 */
+	protected boolean hasPendingChildren() {
+		return childrenSupplier != null;
+	}
+
+	/**
+	 * Creates the children of this item with its children supplier, if
+	 * they have not been created yet
+	 *
+	 */
+	protected void materializeChildren() {
+		if (childrenSupplier != null) {
+			CmdLnChildrenSupplier supplier = childrenSupplier;
+			childrenSupplier = null;
+
+			supplier.addChildren((CmdLnParameter) this);
+		}
 	}
 
 	/**
@@ -284,26 +818,26 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnValue getChild(String childName) {
-		if (!children.containsKey(childName)) {
+		CmdLnValue item = findChild(childName);
+
+		if (item == null) {
 			throw new CommandOPError("Child parameter '" + childName + "' is not defined in '" + getName() + "'.");
 		}
 
-		CmdLnItem item = children.get(childName);
-
-		if (item.isAlias()) {
-			return (CmdLnValue) item.getAliasOf();
-		} else {
-			return (CmdLnValue) item;
-		}
+		return item;
 	}
 
 	/**
 	 * Returns the list with all the children of this item
-	 * (not recursively). The children also include alias items.
+	 * (not recursively). The aliases of the children are not included.
+	 * The children are created if they are supplied and have not
+	 * been created yet.
 	 *
 	 * @return
 	 */
 	protected LinkedHashMap<String, CmdLnValue> getChildrenInternal() {
+		materializeChildren();
+
 		return children;
 	}
 
@@ -316,7 +850,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected Map<String, CmdLnValue> getChildren() {
-		return Collections.unmodifiableMap(children);
+		return Collections.unmodifiableMap(getChildrenInternal());
 	}
 
 	/**
@@ -324,216 +858,919 @@ public abstract class CmdLnItem {
 	 *
 	 * @return
 	 */
-	protected String getName() {
-		return name;
+	protected String getName() {
+		return name;
+	}
+
+	/**
+	 * Retrurny the type string which has been defined for this item
+	 *
+	 * @return
+	 */
+	protected String getTypeString() {
+		return typeString;
+	}
+
+	/**
+	 * Returns the value of this item, or if no value is set the default value
+	 * is returned. If the item is defined as multi-value-item, the first
+	 * available value is returned (same as {@link #getValue(int)} with parameter 0)
+	 *
+	 * @return
+	 */
+	protected String getValue() {
+		return getValue(0);
+	}
+
+	/**
+	 * Returns the value of this item which is on the given position. If the given
+	 * position does not exist, null is returned.
+	 *
+	 * @param multiValuePos
+	 * @return
+	 */
+	protected String getValue(int multiValuePos) {
+		return getValue(peekState(), multiValuePos);
+	}
+
+	/**
+	 * Returns the value which is stored in the given parsing state on the given
+	 * position. If the state is not parsed, the default value is returned.
+	 *
+	 * @param state
+	 * @param multiValuePos
+	 * @return
+	 */
+	protected String getValue(CmdLnItemState state, int multiValuePos) {
+		if (state.isParsed) {
+			if (multiValuePos >= state.values.size()) {
+				return null;
+			}
+
+			return state.values.get(multiValuePos);
+		} else {
+			if (isBoolean()) {
+				return "false";
+			} else {
+				return getDefaultValue();
+			}
+		}
+	}
+
+	/**
+	 * Returns all the values of this command line item. If the item is a multi
+	 * value item, it might contain multiple values. If it is not a multi value
+	 * item, the returned list only contains one single value.
+	 *
+	 * @return
+	 */
+	public List<String> getMultiValues() {
+		return getMultiValues(peekState());
+	}
+
+	/**
+	 * Returns all the values which are stored in the given parsing state
+	 *
+	 * @param state
+	 * @return
+	 */
+	protected List<String> getMultiValues(CmdLnItemState state) {
+		return Collections.unmodifiableList(state.values);
+	}
+
+	/**
+	 * Returns the default value, or null if no default
+	 * value is set
+	 *
+	 * @return
+	 */
+	protected String getDefaultValue() {
+		if (defaultValueSupplier != null) {
+			computeDefaultValue();
+		}
+
+		return defaultValue;
+	}
+
+	/**
+	 * Sets the supplier which computes the default value when it is needed
+	 * for the first time. Any default value which has been set before is
+	 * replaced.
+	 *
+	 * @param defaultValueSupplier
+	 * @param placeholder The text which is printed instead of the default
+	 * value as long as it has not been computed
+	 * @return
+	 */
+	protected CmdLnItem setDefaultValueSupplier(CmdLnDefaultValueSupplier defaultValueSupplier, String placeholder) {
+		checkDefinitionChangeable();
+
+		defaultValue = null;
+		typedDefaultValue = 0;
+		convertedDefaultValue = null;
+		defaultValuePlaceholder = placeholder;
+		this.defaultValueSupplier = defaultValueSupplier;
+
+		return this;
+	}
+
+	/**
+	 * Computes the default value with the supplier, if no other thread has
+	 * done it yet. The typed and converted default values are created as well.
+	 *
+	 * @throws CommandOPError if the computed default value can not be converted.
+	 * It is computed again the next time then.
+	 */
+	private synchronized void computeDefaultValue() {
+		CmdLnDefaultValueSupplier supplier = defaultValueSupplier;
+
+		if (supplier == null) {
+			//Already computed
+			return;
+		}
+
+		String value = supplier.getDefaultValue((CmdLnParameter) this);
+
+		try {
+			typedDefaultValue = (valueType == TYPE_BOOLEAN ? 0 : toTypedValue(value));
+			convertedDefaultValue = toConvertedValue(value);
+		} catch (IllegalArgumentException e) {
+			throw new CommandOPError("The computed default value '" + value + "' of item '" + getName()
+			+ "' is not a valid " + getValueTypeName() + ".");
+		}
+
+		defaultValue = value;
+
+		//Publishes the values above to the threads which read the supplier
+		defaultValueSupplier = null;
+	}
+
+	/**
+	 * Returns true if the default value is computed by a supplier and
+	 * has not been computed yet
+	 *
+	 * @return
+	 */
+	protected boolean hasPendingDefaultValue() {
+		return defaultValueSupplier != null;
+	}
+
+	/**
+	 * Returns the default value as it is printed: the placeholder if the default
+	 * value has not been computed yet, otherwise the default value
+	 *
+	 * @return
+	 */
+	protected String getPrintedDefaultValue() {
+		if (defaultValueSupplier != null) {
+			return defaultValuePlaceholder;
+		}
+
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the description of this item, or null
+	 * if not description has been set
+	 *
+	 * @return
+	 */
+	protected String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Sets the value<br>
+	 * <br>value
+	 * Special cases are:<br>
+	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
+	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
+	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
+	 * to "false"<br>
+	 *
+	 * @param value
+	 * @return Returns an error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String setValue(String value) {
+		return setValue(getState(), value, 0);
+	}
+
+	/**
+	 * Adds the value to the list of multi values<br>
+	 * <br>value
+	 * Special cases are:<br>
+	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
+	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
+	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
+	 * to "false"<br>
+	 *
+	 * @param value
+	 * @return Returns an error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String addMultiValue(String value) {
+		CmdLnItemState state = getState();
+		return setValue(state, value, getValueCount(state));
+	}
+
+	/**
+	 * Sets the value at the given position in the given parsing state<br>
+	 * <br>value
+	 * Special cases are:<br>
+	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
+	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
+	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
+	 * to "false"<br>
+	 *
+	 * @param state
+	 * @param value
+	 * @param multiValuePos
+	 * @return Returns an info or error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String setValue(CmdLnItemState state, String value, int multiValuePos) {
+		return setValue(state, value, multiValuePos, false);
+	}
+
+	/**
+	 * Sets the value at the given position in the given parsing state (see
+	 * {@link #setValue(CmdLnItemState, String, int)})
+	 *
+	 * @param state
+	 * @param value
+	 * @param multiValuePos
+	 * @param uninterpolated If set to <code>true</code>, the value contains references
+	 * which are resolved after parsing. The value is stored as it is, it is validated
+	 * and converted when it is replaced with the resolved value
+	 * (see {@link #replaceValue(CmdLnItemState, int, String)}).
+	 * @return Returns an info or error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String setValue(CmdLnItemState state, String value, int multiValuePos, boolean uninterpolated) {
+
+		//Set the parsed flag already here. Even though the validation might fail
+		//and the value is not set, it is useful to know that the item has been
+		//parsed
+		state.isParsed = true;
+
+		if (isMultiValueItem()) {
+			if (value == null) {
+				//No null-values for multi value items. Otherwise things like
+				//"item=null value1 value2" happen which do not make sense
+				return null;
+			} else if (multiValueMax != 0 && getValueCount(state) >= multiValueMax) {
+				//Limit the number of values if a value is set for multiValueMax
+				return "Item '" + getName() + "' is limited to " + multiValueMax + " values.";
+			}
+		} else {
+			if (state.values.size() > 0) {
+				if (hasFlag(FLAG_FIRST_OCCURRENCE)) {
+					//Only the first occurrence is used, further occurrences are ignored
+					return "[INFO] Value already set for '" + getName() + "' (" + getValue(state, 0) + "). Only first occurrence is used.";
+				} else {
+					//Only last occurrence is used. Clear any existing values.
+					state.clearValues();
+				}
+			}
+		}
+
+		if (uninterpolated) {
+			return addValue(state, value, 0, null);
+		}
+
+		String errormsg = validateValue(value, multiValuePos);
+
+		if (errormsg != null) {
+			return errormsg;
+		}
+
+		String storedValue = toStoredValue(value);
+		long typedValue = 0;
+		Object convertedValue = null;
+
+		try {
+			typedValue = toTypedValue(storedValue);
+			convertedValue = toConvertedValue(storedValue);
+		} catch (IllegalArgumentException e) {
+			return getConversionError(value, e);
+		}
+
+		return addValue(state, storedValue, typedValue, convertedValue);
+	}
+
+	/**
+	 * Replaces the value at the given position with the given value, which is
+	 * validated and converted like a new value. Used for the values whose
+	 * references have been resolved.
+	 *
+	 * @param state
+	 * @param multiValuePos
+	 * @param value
+	 * @return Returns an error message if the value is not valid, or null if
+	 * everything was OK.
+	 */
+	protected String replaceValue(CmdLnItemState state, int multiValuePos, String value) {
+		String errormsg = validateValue(value, multiValuePos);
+
+		if (errormsg != null) {
+			return errormsg;
+		}
+
+		long typedValue = 0;
+		Object convertedValue = null;
+
+		try {
+			typedValue = toTypedValue(value);
+			convertedValue = toConvertedValue(value);
+		} catch (IllegalArgumentException e) {
+			return getConversionError(value, e);
+		}
+
+		if (valueType != TYPE_STRING) {
+			state.setTypedValue(multiValuePos, typedValue);
+		}
+
+		if (converter != null) {
+			state.setConvertedValue(multiValuePos, convertedValue);
+		}
+
+		state.setValue(multiValuePos, value);
+
+		return null;
+	}
+
+	/**
+	 * Sets the value of the given occurrence of the repeatable option block
+	 * this item is in. The value is also set as regular value of the item,
+	 * so that the regular value is the one of the last occurrence (or of the
+	 * first occurrence if {@link #useFirstOccurrence} is set). A multi value
+	 * item gets the value added to the values of the occurrence, see
+	 * {@link #addOccurrenceValue(CmdLnItemState, int, String)}.
+	 *
+	 * @param state
+	 * @param occurrence
+	 * @param value
+	 * @return Returns an error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String setOccurrenceValue(CmdLnItemState state, int occurrence, String value) {
+		state.isParsed = true;
+
+		if (isMultiValueItem()) {
+			if (!state.isGivenInOccurrence(occurrence)) {
+				state.setOccurrenceValue(occurrence, null);
+			}
+
+			return addOccurrenceValue(state, occurrence, value);
+		}
+
+		String errormsg = validateValue(value, 0);
+
+		if (errormsg != null) {
+			return errormsg;
+		}
+
+		String storedValue = toStoredValue(value);
+		long typedValue = 0;
+		Object convertedValue = null;
+
+		try {
+			typedValue = toTypedValue(storedValue);
+			convertedValue = toConvertedValue(storedValue);
+		} catch (IllegalArgumentException e) {
+			return getConversionError(value, e);
+		}
+
+		state.setOccurrenceValue(occurrence, storedValue);
+
+		if (state.values.size() == 0 || !hasFlag(FLAG_FIRST_OCCURRENCE)) {
+			state.clearValues();
+			return addValue(state, storedValue, typedValue, convertedValue);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Adds a value of this multi value item to the given occurrence of the
+	 * repeatable option block this item is in. The number of values
+	 * ({@link #multiValueMax}) and the duplicate values are checked per
+	 * occurrence. The value is also added to the regular values of the item,
+	 * which are the values of all the occurrences (where duplicate values of
+	 * different occurrences are only kept with {@link #DUPLICATES_KEEP}).
+	 *
+	 * @param state
+	 * @param occurrence
+	 * @param value
+	 * @return Returns an error message if adding the value failed, or null if
+	 * everything was OK.
+	 */
+	protected String addOccurrenceValue(CmdLnItemState state, int occurrence, String value) {
+		if (value == null) {
+			//Like the regular values, no null-values
+			return null;
+		}
+
+		List<String> values = state.getOccurrenceValues(occurrence);
+
+		if (multiValueMax != 0 && values.size() >= multiValueMax) {
+			return "Item '" + getName() + "' is limited to " + multiValueMax + " values (occurrence "
+					+ (occurrence + 1) + " of '" + repeatableBlock.getName() + "').";
+		}
+
+		String errormsg = validateValue(value, values.size());
+
+		if (errormsg != null) {
+			return errormsg;
+		}
+
+		String storedValue = toStoredValue(value);
+		long typedValue = 0;
+		Object convertedValue = null;
+
+		try {
+			typedValue = toTypedValue(storedValue);
+			convertedValue = toConvertedValue(storedValue);
+		} catch (IllegalArgumentException e) {
+			return getConversionError(value, e);
+		}
+
+		if (duplicateValues != DUPLICATES_KEEP && values.contains(storedValue)) {
+			if (duplicateValues == DUPLICATES_REJECT) {
+				return "Item '" + getName() + "' already has the value '" + storedValue + "' (occurrence "
+						+ (occurrence + 1) + " of '" + repeatableBlock.getName() + "').";
+			}
+
+			return null;
+		}
+
+		state.addOccurrenceValue(occurrence, storedValue);
+
+		if (duplicateValues != DUPLICATES_KEEP && state.containsValue(storedValue)) {
+			//Already given in another occurrence
+			return null;
+		}
+
+		return addValue(state, storedValue, typedValue, convertedValue);
+	}
+
+	/**
+	 * Returns the values of this multi value item in the given occurrence of
+	 * the repeatable option block it is in
+	 *
+	 * @param state
+	 * @param occurrence
+	 * @return
+	 */
+	protected List<String> getOccurrenceValues(CmdLnItemState state, int occurrence) {
+		return state.getOccurrenceValues(occurrence);
+	}
+
+	/**
+	 * Returns the value of the given occurrence of the repeatable option
+	 * block this item is in. If the item has not been given in that
+	 * occurrence, the default value is returned.
+	 *
+	 * @param state
+	 * @param occurrence
+	 * @return
+	 */
+	protected String getOccurrenceValue(CmdLnItemState state, int occurrence) {
+		if (state.isGivenInOccurrence(occurrence)) {
+			return state.getOccurrenceValue(occurrence);
+		}
+
+		if (isBoolean()) {
+			return "false";
+		} else {
+			return getDefaultValue();
+		}
+	}
+
+	/**
+	 * Validates the given value with the validator of this item, if there is one
+	 *
+	 * @param value
+	 * @param multiValuePos
+	 * @return The error message if the validation failed, or null
+	 */
+	private String validateValue(String value, int multiValuePos) {
+		if (validator != null) {
+			if (!validator.validate(this, value, multiValuePos)) {
+				return "[" + validator.getClass().getSimpleName() + "] Validation of item '" + getName() + "' with value '" + value + "' failed: " + validator.getErrorMessage();
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the value as it is stored for this item. Boolean items
+	 * only store "true" or "false".
+	 *
+	 * @param value
+	 * @return
+	 */
+	private String toStoredValue(String value) {
+		if (value == null) {
+			if (isBoolean()) {
+				//The parameter exists (just without value) -> true
+				return "true";
+			} else {
+				return null;
+			}
+		} else {
+			if (isBoolean()) {
+				if (value.equalsIgnoreCase("true") || value.equals("1")) {
+					return "true";
+				} else {
+					return "false";
+				}
+			} else {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * Converts the given stored value into the primitive form of the value type
+	 * of this item: the number for int and long values, the bits of double values,
+	 * 1 or 0 for boolean values and the ordinal for enum values. For string values
+	 * and null, 0 is returned.
+	 *
+	 * @param storedValue
+	 * @return
+	 * @throws IllegalArgumentException if the value can not be converted
+	 */
+	private long toTypedValue(String storedValue) {
+		if (storedValue == null) {
+			return 0;
+		}
+
+		switch (valueType) {
+		case TYPE_BOOLEAN:
+			return storedValue.equals("true") ? 1 : 0;
+		case TYPE_INT:
+			return Integer.parseInt(storedValue);
+		case TYPE_LONG:
+			return Long.parseLong(storedValue);
+		case TYPE_DOUBLE:
+			return Double.doubleToRawLongBits(Double.parseDouble(storedValue));
+		case TYPE_ENUM:
+			Enum<?>[] constants = enumType.getEnumConstants();
+
+			for (int i = 0; i < constants.length; i++) {
+				if (constants[i].name().equalsIgnoreCase(storedValue)) {
+					return i;
+				}
+			}
+
+			throw new IllegalArgumentException("No constant " + storedValue);
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Converts the given stored value with the converter of this item.
+	 * Without converter, and for null, null is returned.
+	 *
+	 * @param storedValue
+	 * @return
+	 * @throws IllegalArgumentException if the value can not be converted
+	 */
+	private Object toConvertedValue(String storedValue) {
+		if (converter == null || storedValue == null) {
+			return null;
+		}
+
+		return converter.convert(storedValue);
+	}
+
+	/**
+	 * Returns the error message for a value which can not be converted
+	 * into the value type of this item
+	 *
+	 * @param value
+	 * @param e The exception thrown by the conversion
+	 * @return
+	 */
+	private String getConversionError(String value, IllegalArgumentException e) {
+		if (converter != null) {
+			return "[" + converter.getClass().getSimpleName() + "] Conversion of item '" + getName() + "' with value '" + value + "' failed: " + e.getMessage();
+		}
+
+		return "Item '" + getName() + "' with value '" + value + "' failed: The value is not a valid " + getValueTypeName() + ".";
+	}
+
+	/**
+	 * Returns the name of the value type of this item, which is also used as
+	 * type string if no type string is set
+	 *
+	 * @return
+	 */
+	private String getValueTypeName() {
+		if (valueType != TYPE_ENUM) {
+			return toTypeName(valueType);
+		}
+
+		//The names of the enum constants
+		StringBuilder sb = new StringBuilder();
+
+		for (Enum<?> constant : enumType.getEnumConstants()) {
+			if (sb.length() > 0) {
+				sb.append("|");
+			}
+
+			sb.append(constant.name());
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Sets the type of the values of this item. The default value is
+	 * converted right away.
+	 *
+	 * @param valueType
+	 * @param enumType The enum class for {@link #TYPE_ENUM}, or null
+	 * @throws CommandOPError if the default value can not be converted, or if
+	 * this is a boolean item or an item with a converter and the type is changed
+	 */
+	protected void setValueType(int valueType, Class<? extends Enum<?>> enumType) {
+		checkDefinitionChangeable();
+		checkValueTypeChangeable(valueType);
+
+		this.valueType = valueType;
+		this.enumType = enumType;
+
+		if (valueType == TYPE_BOOLEAN || defaultValueSupplier != null) {
+			//A supplied default value is converted when it is computed
+			typedDefaultValue = 0;
+		} else {
+			try {
+				typedDefaultValue = toTypedValue(defaultValue);
+			} catch (IllegalArgumentException e) {
+				throw new CommandOPError("The default value '" + defaultValue + "' of item '" + getName()
+				+ "' is not a valid " + getValueTypeName() + ".");
+			}
+		}
+
+		if (typeString == null && valueType != TYPE_BOOLEAN && valueType != TYPE_STRING) {
+			typeString = getValueTypeName();
+		}
 	}
 
 	/**
-	 * Retrurny the type string which has been defined for this item
+	 * Sets the converter of the values of this item, which replaces any value
+	 * type set with {@link #setValueType(int, Class)}. The default value is
+	 * converted right away.
 	 *
+	 * @param converter
 	 * @return
-	 */
-	protected String getTypeString() {
-		return typeString;
+	 * @throws CommandOPError if the default value can not be converted, or if
+	 * this is a boolean item
+	 */
+	protected CmdLnItem setConverter(CommandOPConverter<?> converter) {
+		checkDefinitionChangeable();
+		checkValueTypeChangeable(TYPE_STRING);
+
+		valueType = TYPE_STRING;
+		enumType = null;
+		this.converter = converter;
+
+		try {
+			//A supplied default value is converted when it is computed
+			convertedDefaultValue = (defaultValueSupplier != null ? null : toConvertedValue(defaultValue));
+		} catch (IllegalArgumentException e) {
+			this.converter = null;
+			throw new CommandOPError("The default value '" + defaultValue + "' of item '" + getName()
+			+ "' can not be converted: " + e.getMessage());
+		}
+
+		if (typeString == null && converter != null) {
+			typeString = converter.getTypeString();
+		}
+
+		return this;
 	}
 
 	/**
-	 * Returns the value of this item, or if no value is set the default value
-	 * is returned. If the item is defined as multi-value-item, the first
-	 * available value is returned (same as {@link #getValue(int)} with parameter 0)
+	 * Checks if the values of this item can be given the new type. A boolean
+	 * item can not get another type, and an item with a converter can only
+	 * get another converter.
 	 *
-	 * @return
+	 * @param newValueType The new type, {@link #TYPE_STRING} for a converter
+	 * @throws CommandOPError if the type can not be changed
 	 */
-	protected String getValue() {
-		return getValue(0);
+	private void checkValueTypeChangeable(int newValueType) {
+		if (hasFlag(FLAG_BOOLEAN) && newValueType != TYPE_BOOLEAN) {
+			throw new CommandOPError("Item '" + getName() + "' is a boolean item. Its value type can not be changed.");
+		}
+
+		if (converter != null && newValueType != TYPE_STRING) {
+			throw new CommandOPError("The values of item '" + getName() + "' are converted. Its value type can not be changed.");
+		}
 	}
 
 	/**
-	 * Returns the value of this item which is on the given position. If the given
-	 * position does not exist, null is returned.
+	 * Returns the converted value at the given position, as object of the
+	 * given type. If the state is not parsed, the converted default value
+	 * is returned.
 	 *
+	 * @param state
 	 * @param multiValuePos
-	 * @return
+	 * @param type
+	 * @return The converted value, or null if there is no value
+	 * @throws CommandOPError if the item does not have a converter for the requested type
 	 */
-	protected String getValue(int multiValuePos) {
-		if (aliasOf != null) {
-			//This item is only the alias of another item
-			return aliasOf.getValue(multiValuePos);
+	protected <T> T getConvertedValue(CmdLnItemState state, int multiValuePos, Class<T> type) {
+		if (converter == null) {
+			throw new CommandOPError("Item '" + getName() + "' does not have a converter.");
 		}
 
-		if (isParsed) {
-			if (multiValuePos >= values.size()) {
+		Object convertedValue;
+
+		if (state.isParsed) {
+			if (multiValuePos >= state.values.size()) {
 				return null;
 			}
 
-			return values.get(multiValuePos);
+			convertedValue = state.getConvertedValue(multiValuePos);
 		} else {
-			if (isBoolean) {
-				return "false";
-			} else {
-				return defaultValue;
-			}
+			getDefaultValue();
+			convertedValue = convertedDefaultValue;
+		}
+
+		if (convertedValue != null && !type.isInstance(convertedValue)) {
+			throw new CommandOPError("Item '" + getName() + "' does not have values of the type " + type.getSimpleName() + ".");
 		}
+
+		return type.cast(convertedValue);
 	}
 
 	/**
-	 * Returns all the values of this command line item. If the item is a multi
-	 * value item, it might contain multiple values. If it is not a multi value
-	 * item, the returned list only contains one single value.
+	 * Returns the type of the values of this item, one of the TYPE_ constants
 	 *
 	 * @return
 	 */
-	public List<String> getMultiValues() {
-		if (aliasOf != null) {
-			//This item is only the alias of another item
-			return aliasOf.getMultiValues();
-		}
-
-		return Collections.unmodifiableList(values);
+	protected int getValueType() {
+		return valueType;
 	}
 
 	/**
-	 * Returns the default value, or null if no default
-	 * value is set
+	 * Returns the value at the given position in its primitive form (see
+	 * {@link #toTypedValue(String)}), checking that the value type of this item
+	 * is one of the given types. If the state is not parsed, the default value
+	 * is returned.
 	 *
+	 * @param state
+	 * @param multiValuePos
+	 * @param type The requested type
+	 * @param compatibleType A type which can be used for the requested type as well,
+	 * or the requested type again
 	 * @return
+	 * @throws CommandOPError if the item does not have a value of the requested type
 	 */
-	protected String getDefaultValue() {
-		return defaultValue;
+	protected long getTypedValue(CmdLnItemState state, int multiValuePos, int type, int compatibleType) {
+		if (valueType != type && valueType != compatibleType) {
+			throw new CommandOPError("Item '" + getName() + "' does not have " + toTypeName(type) + " values.");
+		}
+
+		if (state.isParsed) {
+			if (multiValuePos >= state.values.size() || state.values.get(multiValuePos) == null) {
+				throw new CommandOPError("Item '" + getName() + "' does not have a value at position " + multiValuePos + ".");
+			}
+
+			return state.getTypedValue(multiValuePos);
+		}
+
+		if (getDefaultValue() == null && valueType != TYPE_BOOLEAN) {
+			throw new CommandOPError("Item '" + getName() + "' does not have a value or default value.");
+		}
+
+		return typedDefaultValue;
 	}
 
 	/**
-	 * Returns the description of this item, or null
-	 * if not description has been set
+	 * Returns the value at the given position as double, for items with int,
+	 * long or double values
 	 *
+	 * @param state
+	 * @param multiValuePos
 	 * @return
 	 */
-	protected String getDescription() {
-		return description;
+	protected double getDoubleValue(CmdLnItemState state, int multiValuePos) {
+		if (valueType == TYPE_DOUBLE) {
+			return Double.longBitsToDouble(getTypedValue(state, multiValuePos, TYPE_DOUBLE, TYPE_DOUBLE));
+		}
+
+		return getTypedValue(state, multiValuePos, TYPE_INT, TYPE_LONG);
 	}
 
 	/**
-	 * Sets the value<br>
-	 * <br>value
-	 * Special cases are:<br>
-	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
-	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
-	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
-	 * to "false"<br>
+	 * Returns the value of an enum item as constant of the given enum class
 	 *
-	 * @param value
-	 * @return Returns an error message if setting the value failed, or null if
-	 * everything was OK.
+	 * @param state
+	 * @param type
+	 * @return
 	 */
-	protected String setValue(String value) {
-		return setValue(value, 0);
+	protected <E extends Enum<E>> E getEnumValue(CmdLnItemState state, Class<E> type) {
+		if (enumType != type) {
+			throw new CommandOPError("Item '" + getName() + "' does not have values of the type " + type.getSimpleName() + ".");
+		}
+
+		return type.getEnumConstants()[(int)getTypedValue(state, 0, TYPE_ENUM, TYPE_ENUM)];
 	}
 
 	/**
-	 * Adds the value to the list of multi values<br>
-	 * <br>value
-	 * Special cases are:<br>
-	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
-	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
-	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
-	 * to "false"<br>
+	 * Returns the name of the given value type
 	 *
-	 * @param value
-	 * @return Returns an error message if setting the value failed, or null if
-	 * everything was OK.
+	 * @param type
+	 * @return
 	 */
-	protected String addMultiValue(String value) {
-		return setValue(value, values.size());
+	private static String toTypeName(int type) {
+		switch (type) {
+		case TYPE_BOOLEAN:
+			return "boolean";
+		case TYPE_INT:
+			return "int";
+		case TYPE_LONG:
+			return "long";
+		case TYPE_DOUBLE:
+			return "double";
+		case TYPE_ENUM:
+			return "enum";
+		default:
+			return "string";
+		}
 	}
 
 	/**
-	 * Sets the value at the given position<br>
-	 * <br>value
-	 * Special cases are:<br>
-	 * The item is set as Boolean and the value is null -> The item-value is set to "true"<br>
-	 * The item is set as Boolean and the value is not null -> Any value that equals "true"
-	 * (ignoring case) sets the item-value to "true". Any other value sets the item-value
-	 * to "false"<br>
+	 * Adds the value to the list of values, or passes it to the value consumer of
+	 * a streaming item. A value which already exists is dropped or rejected,
+	 * unless duplicates are kept (see {@link #duplicateValues}). Streamed values
+	 * are not checked for duplicates.
+	 * The value in primitive form and the converted value are stored at the
+	 * same position.
 	 *
+	 * @param state
 	 * @param value
-	 * @param multiValuePos
-	 * @return Returns an info or error message if setting the value failed, or null if
-	 * everything was OK.
-	 */
-	private String setValue(String value, int multiValuePos) {
-
-		if (aliasOf != null) {
-			//This item is the alias of another item
-			return aliasOf.setValue(value, multiValuePos);
+	 * @param typedValue
+	 * @param convertedValue
+	 * @return Returns an error message if the value is rejected, or null
+	 */
+	private String addValue(CmdLnItemState state, String value, long typedValue, Object convertedValue) {
+		if (valueConsumer != null) {
+			//Streaming: only count the value
+			valueConsumer.consumeValue((CmdLnParameter) this, value, state.numOfStreamedValues++);
+			return null;
 		}
 
-		//Set the parsed flag already here. Even though the validation might fail
-		//and the value is not set, it is useful to know that the item has been
-		//parsed
-		isParsed = true;
-
-		if (isMultiValueItem) {
-			if (value == null) {
-				//No null-values for multi value items. Otherwise things like
-				//"item=null value1 value2" happen which do not make sense
-				return null;
-			} else if (multiValueMax != 0 && values.size() >= multiValueMax) {
-				//Limit the number of values if a value is set for multiValueMax
-				return "Item '" + getName() + "' is limited to " + multiValueMax + " values.";
-			}
-		} else {
-			if (values.size() > 0) {
-				if (useFirstOccurrence) {
-					//Only the first occurrence is used, further occurrences are ignored
-					return "[INFO] Value already set for '" + getName() + "' (" + getValue() + "). Only first occurrence is used.";
-				} else {
-					//Only last occurrence is used. Clear any existing values.
-					values.clear();
-				}
+		if (duplicateValues != DUPLICATES_KEEP && state.containsValue(value)) {
+			if (duplicateValues == DUPLICATES_REJECT) {
+				return "Item '" + getName() + "' already has the value '" + value + "'.";
 			}
+
+			return null;
 		}
 
-		if (validator != null) {
-			if (!validator.validate(this, value, multiValuePos)) {
-				return "[" + validator.getClass().getSimpleName() + "] Validation of item '" + getName() + "' with value '" + value + "' failed: " + validator.getErrorMessage();
-			}
+		if (valueType != TYPE_STRING) {
+			state.setTypedValue(state.values.size(), typedValue);
 		}
 
-		if (value == null) {
-			if (isBoolean) {
-				//The parameter exists (just without value) -> true
-				addValue("true");
-			} else {
-				addValue(null);
-			}
-		} else {
-			if (isBoolean) {
-				String lower = value.toLowerCase();
-				if (lower.equals("true") || lower.equals("1")) {
-					addValue("true");
-				} else {
-					addValue("false");
-				}
-			} else {
-				addValue(value);
-			}
+		if (converter != null) {
+			state.setConvertedValue(state.values.size(), convertedValue);
 		}
 
+		state.addValue(value);
+
 		return null;
 	}
 
 	/**
-	 * Adds the value to the list of values, but only if it does not exist to avoid
-	 * multiple same values for multi value items
+	 * Returns true if the given flag (one of the FLAG_ constants) is set
 	 *
-	 * @param value
+	 * @param flag
+	 * @return
 	 */
-	private void addValue(String value) {
-		if (values.contains(value)) {
-			return;
-		}
+	protected boolean hasFlag(int flag) {
+		return (flags & flag) != 0;
+	}
 
-		values.add(value);
+	/**
+	 * Sets or clears the given flag (one of the FLAG_ constants)
+	 *
+	 * @param flag
+	 * @param set
+	 */
+	protected void setFlag(int flag, boolean set) {
+		if (set) {
+			flags |= flag;
+		} else {
+			flags &= ~flag;
+		}
 	}
 
 	/**
@@ -546,7 +1783,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isMandatory() {
-		return isMandatory;
+		return hasFlag(FLAG_MANDATORY);
 	}
 
 	/**
@@ -557,7 +1794,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isBoolean() {
-		return isBoolean;
+		return hasFlag(FLAG_BOOLEAN);
 	}
 
 	/**
@@ -581,9 +1818,9 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnItem setAsOption() {
-		isOption = true;
-		isShortOption = false;
-		isParameter = false;
+		setFlag(FLAG_OPTION, true);
+		setFlag(FLAG_SHORTOPTION, false);
+		setFlag(FLAG_PARAMETER, false);
 		return this;
 	}
 
@@ -594,7 +1831,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isOption() {
-		return isOption;
+		return hasFlag(FLAG_OPTION);
 	}
 
 	/**
@@ -606,9 +1843,9 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnItem setAsShortOption() {
-		isOption = false;
-		isShortOption = true;
-		isParameter = false;
+		setFlag(FLAG_OPTION, false);
+		setFlag(FLAG_SHORTOPTION, true);
+		setFlag(FLAG_PARAMETER, false);
 		return this;
 	}
 
@@ -619,7 +1856,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isShortOption() {
-		return isShortOption;
+		return hasFlag(FLAG_SHORTOPTION);
 	}
 
 	/**
@@ -629,9 +1866,9 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnItem setAsParameter() {
-		isOption = false;
-		isShortOption = false;
-		isParameter = true;
+		setFlag(FLAG_OPTION, false);
+		setFlag(FLAG_SHORTOPTION, false);
+		setFlag(FLAG_PARAMETER, true);
 		return this;
 	}
 
@@ -642,7 +1879,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isParameter() {
-		return isParameter;
+		return hasFlag(FLAG_PARAMETER);
 	}
 
 	/**
@@ -654,11 +1891,11 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	public String getTypeDescString() {
-		if (isOption) {
+		if (isOption()) {
 			return OPTION_DESC;
-		} else if (isShortOption) {
+		} else if (isShortOption()) {
 			return SHORTOPTION_DESC;
-		} else if (isParameter) {
+		} else if (isParameter()) {
 			return PARAMETER_DESC;
 		}
 
@@ -674,11 +1911,11 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	public String getCmdLnTypePrefix() {
-		if (isOption) {
+		if (isOption()) {
 			return OPTION_PREFIX;
-		} else if (isShortOption) {
+		} else if (isShortOption()) {
 			return SHORTOPTION_PREFIX;
-		} else if (isParameter) {
+		} else if (isParameter()) {
 			return PARAMETER_PREFIX;
 		}
 
@@ -694,7 +1931,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isParsed() {
-		return isParsed;
+		return peekState().isParsed;
 	}
 
 	/**
@@ -706,7 +1943,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isValueRequired() {
-		return isValueRequired;
+		return hasFlag(FLAG_VALUE_REQUIRED);
 	}
 
 	/**
@@ -717,7 +1954,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected CmdLnItem setHiddenInPrint() {
-		isHiddenInPrint = true;
+		setFlag(FLAG_HIDDEN_IN_PRINT, true);
 		return this;
 	}
 
@@ -729,16 +1966,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isHiddenInPrint() {
-		return isHiddenInPrint;
-	}
-
-	/**
-	 * Returns true if this item is an alias of another item
-	 *
-	 * @return
-	 */
-	protected boolean isAlias() {
-		return aliasOf != null;
+		return hasFlag(FLAG_HIDDEN_IN_PRINT);
 	}
 
 	/**
@@ -747,37 +1975,44 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean hasAlias() {
-		return alias.size() > 0;
+		return alias != null || shortAlias != null;
 	}
 
 	/**
-	 * Returns true if this item has an alias with the given name
+	 * Returns true if this item has an alias (or short alias) with the given name
 	 *
 	 * @param aliasName
 	 * @return
 	 */
 	protected boolean hasAlias(String aliasName) {
-		return alias.containsKey(aliasName);
+		return alias != null && alias.contains(aliasName)
+				|| shortAlias != null && shortAlias.contains(aliasName);
 	}
 
 	/**
-	 * Returns the alias with the given name, or null
-	 * if such an alias does not exist.
+	 * Returns the names of the aliases of this item, without the short aliases
 	 *
-	 * @param aliasName
 	 * @return
 	 */
-	protected CmdLnItem getAlias(String aliasName) {
-		return alias.get(aliasName);
+	protected Set<String> getAliasNames() {
+		if (alias == null) {
+			return Collections.emptySet();
+		}
+
+		return Collections.unmodifiableSet(alias);
 	}
 
 	/**
-	 * Returns the map with all the alias
+	 * Returns the names of the short aliases of this item
 	 *
 	 * @return
 	 */
-	protected HashMap<String, CmdLnItem> getAlias() {
-		return alias;
+	protected Set<String> getShortAliasNames() {
+		if (shortAlias == null) {
+			return Collections.emptySet();
+		}
+
+		return Collections.unmodifiableSet(shortAlias);
 	}
 
 	/**
@@ -797,6 +2032,76 @@ public abstract class CmdLnItem {
 		return true;
 	}
 
+	/**
+	 * Sets the consumer which receives the values of this item instead of
+	 * its parsing state
+	 *
+	 * @param valueConsumer
+	 * @throws CommandOPError if this item is in a repeatable option block
+	 */
+	protected void setValueConsumer(CmdLnValueConsumer valueConsumer) {
+		checkDefinitionChangeable();
+
+		if (valueConsumer != null && repeatableBlock != null) {
+			throw new CommandOPError("Item '" + getName() + "' is in the repeatable option '"
+					+ repeatableBlock.getName() + "'. Its values are checked per occurrence and can not be streamed.");
+		}
+
+		this.valueConsumer = valueConsumer;
+	}
+
+	/**
+	 * Makes sure that neither this item nor any item below it streams its
+	 * values, before they become part of the given repeatable option block.
+	 * Streamed values are not stored, thus they can not be checked per occurrence.
+	 *
+	 * @param block
+	 * @throws CommandOPError if an item streams its values
+	 */
+	protected void checkNoStreamingItems(CmdLnItem block) {
+		if (valueConsumer != null) {
+			throw new CommandOPError("Item '" + getName() + "' streams its values and can not be in the repeatable option '"
+					+ block.getName() + "'. The values of a repeatable option are checked per occurrence.");
+		}
+
+		for (CmdLnItem child : children.values()) {
+			child.checkNoStreamingItems(block);
+		}
+	}
+
+	/**
+	 * Returns true if the values of this item are passed to a value consumer
+	 * instead of being stored
+	 *
+	 * @return
+	 */
+	protected boolean hasValueConsumer() {
+		return valueConsumer != null;
+	}
+
+	/**
+	 * Stores the values of this item in a {@link CompactValueList}
+	 *
+	 */
+	protected void setCompactValues() {
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_COMPACT_VALUES, true);
+
+		if (state != null) {
+			state.setCompactValues();
+		}
+	}
+
+	/**
+	 * Returns true if the values of this item are stored in a {@link CompactValueList}
+	 *
+	 * @return
+	 */
+	protected boolean hasCompactValues() {
+		return hasFlag(FLAG_COMPACT_VALUES);
+	}
+
 	/**
 	 * Returns true if this item is defined as a multi-value-item. If an item is defined
 	 * as such, all the command line arguments which follow the item are
@@ -805,7 +2110,65 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected boolean isMultiValueItem() {
-		return isMultiValueItem;
+		return hasFlag(FLAG_MULTI_VALUE);
+	}
+
+	/**
+	 * Returns true if this item is a repeatable option, of which each occurrence
+	 * on the command line has its own child values
+	 *
+	 * @return
+	 */
+	protected boolean isRepeatable() {
+		return hasFlag(FLAG_REPEATABLE);
+	}
+
+	/**
+	 * Returns the repeatable option this item belongs to (this item itself
+	 * or one of the items above it), or null if it is not within a repeatable
+	 * option block
+	 *
+	 * @return
+	 */
+	protected CmdLnItem getRepeatableBlock() {
+		return repeatableBlock;
+	}
+
+	/**
+	 * Returns the number of times the repeatable option block this item
+	 * is in has been given, or 0 if the item is not within such a block
+	 *
+	 * @return
+	 */
+	protected int getNumOfOccurrences() {
+		if (repeatableBlock == null) {
+			return 0;
+		}
+
+		return repeatableBlock.peekState().occurrences;
+	}
+
+	/**
+	 * Returns the value of this item in the given occurrence of the repeatable
+	 * option block it is in. If the item has not been given in that occurrence,
+	 * the default value is returned.
+	 *
+	 * @param occurrence
+	 * @return
+	 */
+	protected String getOccurrenceValue(int occurrence) {
+		return getOccurrenceValue(peekState(), occurrence);
+	}
+
+	/**
+	 * Returns the values of this multi value item in the given occurrence of
+	 * the repeatable option block it is in
+	 *
+	 * @param occurrence
+	 * @return
+	 */
+	protected List<String> getOccurrenceValues(int occurrence) {
+		return getOccurrenceValues(peekState(), occurrence);
 	}
 
 	/**
@@ -833,12 +2196,39 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected int getNumOfValues() {
-		if (values.size() == 0) {
+		return getNumOfValues(peekState());
+	}
+
+	/**
+	 * Returns the number of values which are stored in the given parsing state
+	 *
+	 * @param state
+	 * @return
+	 */
+	protected int getNumOfValues(CmdLnItemState state) {
+		int count = getValueCount(state);
+
+		if (count == 0) {
 			//The default value (or null if no value is set) is always there
 			return 1;
 		}
 
-		return values.size();
+		return count;
+	}
+
+	/**
+	 * Returns the number of values which have been set in the given parsing
+	 * state, which are the values passed on for streaming items
+	 *
+	 * @param state
+	 * @return
+	 */
+	protected int getValueCount(CmdLnItemState state) {
+		if (valueConsumer != null) {
+			return state.numOfStreamedValues;
+		}
+
+		return state.values.size();
 	}
 
 	/**
@@ -848,7 +2238,7 @@ public abstract class CmdLnItem {
 	 * @param cmdLnPos
 	 */
 	protected void setCmdLnPos(int cmdLnPos) {
-		this.cmdLnPos = cmdLnPos;
+		getState().cmdLnPos = cmdLnPos;
 	}
 
 	/**
@@ -858,7 +2248,7 @@ public abstract class CmdLnItem {
 	 * @return
 	 */
 	protected int getCmdLnPos() {
-		return cmdLnPos;
+		return peekState().cmdLnPos;
 	}
 
 	/**
@@ -873,18 +2263,7 @@ public abstract class CmdLnItem {
 
 		LinkedList<CmdLnValue> list = CommandOPTools.createFlatList(parent.getChildrenInternal().values());
 
-		int index = 0;
-
-		if (isAlias()) {
-			index = list.indexOf(getAliasOf()) + 1;
-		} else {
-			index = list.indexOf(this) + 1;
-		}
-
-		//Skip aliases
-		while (index < list.size() && list.get(index).isAlias()) {
-			index++;
-		}
+		int index = list.indexOf(this) + 1;
 
 		if (list.size() > index && index >= 0) {
 			return list.get(index);
@@ -917,18 +2296,7 @@ public abstract class CmdLnItem {
 
 		LinkedList<CmdLnItem> list = new LinkedList<CmdLnItem>(parentChildren.values());
 
-		int index = 0;
-
-		if (isAlias()) {
-			index = list.indexOf(getAliasOf()) - 1;
-		} else {
-			index = list.indexOf(this) - 1;
-		}
-
-		//Skip aliases
-		while (index > 0 && list.get(index).isAlias()) {
-			index--;
-		}
+		int index = list.indexOf(this) - 1;
 
 		if (list.size() > index && index >= 0) {
 			return list.get(index);
@@ -979,10 +2347,6 @@ public abstract class CmdLnItem {
 			boolean recursive, boolean withAlias) {
 
 		for (CmdLnValue value : item.getChildrenInternal().values()) {
-			if (!withAlias && value.isAlias()) {
-				continue;
-			}
-
 			m.put(item.getName(), value);
 
 			if (recursive) {
@@ -990,6 +2354,12 @@ public abstract class CmdLnItem {
 			}
 		}
 
+		if (withAlias && item.childAliases != null) {
+			for (CmdLnValue value : item.childAliases.values()) {
+				m.put(item.getName(), value);
+			}
+		}
+
 		return m;
 	}
 
@@ -1010,7 +2380,7 @@ public abstract class CmdLnItem {
 		//				(hasParent() ? ", parent=" + getParent().getName() : "") +
 		//				")";
 
-		return getCmdLnTypePrefix() + name + "=" + values + "(" + alias + ")";
+		return getCmdLnTypePrefix() + name + "=" + peekState().values + "(" + getAliasNames() + ")";
 	}
 
 }
@@ -0,0 +1,346 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The parsing state of a single command line item: its values, the parsed flag
+ * and the position on the command line. The state is kept apart from the item
+ * definition ({@link CmdLnItem}) so that one definition can be parsed into
+ * independent states, for example one {@link CommandOPResult} per parsing
+ * of a {@link CommandOPSchema}.<br />
+ * <br />
+ * Items within a repeatable option block (see {@link CmdLnOption#setRepeatable()})
+ * also store the value of each occurrence of the block, as one column per item
+ * which is indexed by the occurrence.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class CmdLnItemState {
+
+	/**
+	 * The state which is returned for items which have not been touched while
+	 * parsing. It is never changed.
+	 */
+	protected static final CmdLnItemState UNPARSED = new CmdLnItemState();
+
+	/**
+	 * Only {@link #addValue(String)} and {@link #clearValues()} should change
+	 * the values, so that the value set stays in sync
+	 */
+	protected List<String> values = null;
+
+	/**
+	 * The values as set, for the duplicate checks of multi value items with
+	 * many values. Created once the values list is too long to be searched.
+	 * Not used with compact values, which have their own hash table.
+	 */
+	private HashSet<String> valueSet = null;
+
+	protected boolean isParsed = false;
+
+	/** The number of values up to which the duplicate check searches the list */
+	private static final int VALUE_SET_THRESHOLD = 8;
+
+	protected int cmdLnPos = 0;
+
+	/**
+	 * The generation of the root at the last use of this state, see
+	 * {@link CmdLnItem#getState()}
+	 */
+	protected int generation = 0;
+
+	/**
+	 * The values in primitive form, at the same positions as in the values
+	 * list. Only used for items with typed values.
+	 */
+	private long[] typedValues = null;
+
+	/**
+	 * The values as converted by the converter of the item, at the same
+	 * positions as in the values list. Only used for items with a converter.
+	 */
+	private Object[] convertedValues = null;
+
+	/** The number of values which have been passed on, for streaming multi value items */
+	protected int numOfStreamedValues = 0;
+
+	/** The number of occurrences, if this is the state of a repeatable option */
+	protected int occurrences = 0;
+
+	/** The value of each occurrence of the block this item is in */
+	private String[] occurrenceValues = null;
+
+	/** The occurrences in which the item has been given */
+	private BitSet occurrenceGiven = null;
+
+	/**
+	 * The values of each occurrence of the block, if the item is a multi
+	 * value item. Created with the first value.
+	 */
+	private ArrayList<List<String>> occurrenceMultiValues = null;
+
+
+	/**
+	 *
+	 */
+	protected CmdLnItemState() {
+		values = new ArrayList<>();
+	}
+
+	/**
+	 * Clears the values and the parsed flag
+	 *
+	 */
+	protected void reset() {
+		clearValues();
+
+		isParsed = false;
+		numOfStreamedValues = 0;
+
+		if (convertedValues != null) {
+			//Do not keep the converted objects of the last parsing
+			Arrays.fill(convertedValues, null);
+		}
+
+		occurrences = 0;
+		occurrenceValues = null;
+		occurrenceGiven = null;
+		occurrenceMultiValues = null;
+	}
+
+	/**
+	 * Adds the value at the end of the values
+	 *
+	 * @param value
+	 */
+	protected void addValue(String value) {
+		values.add(value);
+
+		if (valueSet != null) {
+			valueSet.add(value);
+		}
+	}
+
+	/**
+	 * Replaces the value at the given position
+	 *
+	 * @param pos
+	 * @param value
+	 */
+	protected void setValue(int pos, String value) {
+		values.set(pos, value);
+
+		//Created again when it is needed
+		valueSet = null;
+	}
+
+	/**
+	 * Returns true if the given value is one of the values. Short lists
+	 * are searched, for longer lists a set of the values is created and
+	 * kept up to date from then on.
+	 *
+	 * @param value
+	 * @return
+	 */
+	protected boolean containsValue(String value) {
+		if (values instanceof CompactValueList) {
+			return values.contains(value);
+		}
+
+		if (valueSet == null) {
+			if (values.size() < VALUE_SET_THRESHOLD) {
+				return values.contains(value);
+			}
+
+			valueSet = new HashSet<>(values);
+		}
+
+		return valueSet.contains(value);
+	}
+
+	/**
+	 * Stores the values in a {@link CompactValueList} from now on. Only
+	 * possible as long as there are no values.
+	 *
+	 */
+	protected void setCompactValues() {
+		if (!(values instanceof CompactValueList) && values.isEmpty()) {
+			values = new CompactValueList();
+			valueSet = null;
+		}
+	}
+
+	/**
+	 * Removes all the values
+	 *
+	 */
+	protected void clearValues() {
+		values.clear();
+		valueSet = null;
+	}
+
+	/**
+	 * Stores the value in primitive form at the given position
+	 *
+	 * @param pos
+	 * @param typedValue
+	 */
+	protected void setTypedValue(int pos, long typedValue) {
+		if (typedValues == null) {
+			typedValues = new long[Math.max(1, pos + 1)];
+		} else if (pos >= typedValues.length) {
+			typedValues = Arrays.copyOf(typedValues, Math.max(typedValues.length * 2, pos + 1));
+		}
+
+		typedValues[pos] = typedValue;
+	}
+
+	/**
+	 * Returns the value in primitive form at the given position
+	 *
+	 * @param pos
+	 * @return
+	 */
+	protected long getTypedValue(int pos) {
+		return typedValues[pos];
+	}
+
+	/**
+	 * Stores the converted value at the given position
+	 *
+	 * @param pos
+	 * @param convertedValue
+	 */
+	protected void setConvertedValue(int pos, Object convertedValue) {
+		if (convertedValues == null) {
+			convertedValues = new Object[Math.max(1, pos + 1)];
+		} else if (pos >= convertedValues.length) {
+			convertedValues = Arrays.copyOf(convertedValues, Math.max(convertedValues.length * 2, pos + 1));
+		}
+
+		convertedValues[pos] = convertedValue;
+	}
+
+	/**
+	 * Returns the converted value at the given position
+	 *
+	 * @param pos
+	 * @return
+	 */
+	protected Object getConvertedValue(int pos) {
+		return convertedValues[pos];
+	}
+
+	/**
+	 * Stores the value of the given occurrence of the block this item is in
+	 *
+	 * @param occurrence
+	 * @param value
+	 */
+	protected void setOccurrenceValue(int occurrence, String value) {
+		if (occurrenceValues == null) {
+			occurrenceValues = new String[Math.max(4, occurrence + 1)];
+			occurrenceGiven = new BitSet();
+		} else if (occurrence >= occurrenceValues.length) {
+			occurrenceValues = Arrays.copyOf(occurrenceValues, Math.max(occurrenceValues.length * 2, occurrence + 1));
+		}
+
+		occurrenceValues[occurrence] = value;
+		occurrenceGiven.set(occurrence);
+	}
+
+	/**
+	 * Returns true if the item has been given in the given occurrence
+	 * of its block
+	 *
+	 * @param occurrence
+	 * @return
+	 */
+	protected boolean isGivenInOccurrence(int occurrence) {
+		return occurrenceGiven != null && occurrenceGiven.get(occurrence);
+	}
+
+	/**
+	 * Returns the value of the given occurrence of the block this item is
+	 * in, or null if the item has not been given in that occurrence
+	 *
+	 * @param occurrence
+	 * @return
+	 */
+	protected String getOccurrenceValue(int occurrence) {
+		if (!isGivenInOccurrence(occurrence)) {
+			return null;
+		}
+
+		return occurrenceValues[occurrence];
+	}
+
+	/**
+	 * Adds a value of a multi value item to the given occurrence of the block
+	 * this item is in. The first value is also stored as the value of the
+	 * occurrence (see {@link #getOccurrenceValue(int)}). The item has to be
+	 * set as given in that occurrence already.
+	 *
+	 * @param occurrence
+	 * @param value
+	 */
+	protected void addOccurrenceValue(int occurrence, String value) {
+		if (occurrenceMultiValues == null) {
+			occurrenceMultiValues = new ArrayList<List<String>>();
+		}
+
+		while (occurrenceMultiValues.size() <= occurrence) {
+			occurrenceMultiValues.add(null);
+		}
+
+		List<String> values = occurrenceMultiValues.get(occurrence);
+
+		if (values == null) {
+			values = new ArrayList<String>();
+			occurrenceMultiValues.set(occurrence, values);
+			occurrenceValues[occurrence] = value;
+		}
+
+		values.add(value);
+	}
+
+	/**
+	 * Returns the values of a multi value item in the given occurrence of
+	 * the block this item is in
+	 *
+	 * @param occurrence
+	 * @return The values, or an empty list if the item has no values in
+	 * that occurrence
+	 */
+	protected List<String> getOccurrenceValues(int occurrence) {
+		if (occurrenceMultiValues == null || occurrence >= occurrenceMultiValues.size()
+				|| occurrenceMultiValues.get(occurrence) == null) {
+			return Collections.emptyList();
+		}
+
+		return Collections.unmodifiableList(occurrenceMultiValues.get(occurrence));
+	}
+
+}
@@ -83,8 +83,45 @@ public class CmdLnOption extends CmdLnParameter {
 	 * @return
 	 */
 	public CmdLnOption addShortAlias(Character shortName) {
-		addAlias(shortName.toString());
-		alias.get(shortName.toString()).setAsShortOption();
+		checkDefinitionChangeable();
+
+		String aliasName = shortName.toString();
+
+		if (hasAlias(aliasName)) {
+			throw new CommandOPError("Alias with the name '" + aliasName + "' already exists. Can not add alias.");
+		}
+
+		((CommandOP)getParentInternal()).addOptionAlias(aliasName, this, true);
+		addAliasName(aliasName, true);
+
+		return this;
+	}
+
+	/**
+	 * Makes this option repeatable. Each occurrence of a repeatable option on
+	 * the command line starts a new block with its own child values, for example
+	 * "--worker host=a port=1 --worker host=b port=2". The value of each child
+	 * is stored per occurrence and can be retrieved with
+	 * {@link CommandOPResult#getOccurrenceValue(CmdLnItem, int)}, the values of
+	 * a multi value child with {@link CommandOPResult#getOccurrenceValues(CmdLnItem, int)}.
+	 * Mandatory child items, required values and the number of values of multi
+	 * value items are checked for each occurrence.<br>
+	 * <br>
+	 * The regular value of the option and its children is the one of the
+	 * last occurrence (or the first occurrence, see {@link #useFirstOccurrence(boolean)}).
+	 * The regular values of a multi value item are the values of all the occurrences.
+	 * Streaming multi value items (see {@link #setAsStreamingMultiValueItem(CmdLnValueConsumer)})
+	 * can not be part of a repeatable option.
+	 *
+	 * @return
+	 * @throws CommandOPError if this option or one of its children streams its values
+	 */
+	public CmdLnOption setRepeatable() {
+		checkDefinitionChangeable();
+		checkNoStreamingItems(this);
+
+		setFlag(FLAG_REPEATABLE, true);
+		adjustLevel();
 		return this;
 	}
 
@@ -98,16 +135,14 @@ public class CmdLnOption extends CmdLnParameter {
 	 */
 	@Override
 	public CmdLnOption addAlias(String aliasName) {
+		checkDefinitionChangeable();
 
-		if (alias.containsKey(aliasName)) {
+		if (hasAlias(aliasName)) {
 			throw new CommandOPError("Alias with the name '" + aliasName + "' already exists. Can not add alias.");
 		}
 
-		//Adds an alias option
-		CmdLnParameter item = ((CommandOP)getParentInternal()).addOption(aliasName, null);
-		item.setAliasOf(this);
-
-		alias.put(aliasName, item);
+		((CommandOP)getParentInternal()).addOptionAlias(aliasName, this, false);
+		addAliasName(aliasName, false);
 
 		//Return actual parameter and not the alias
 		return this;
@@ -16,6 +16,8 @@
  */
 package ch.thn.app.commandop;
 
+import ch.thn.app.commandop.converter.CommandOPConverter;
+import ch.thn.app.commandop.converter.CommandOPConverters;
 import ch.thn.app.commandop.validator.CommandOPValidator;
 
 
@@ -90,24 +92,59 @@ public class CmdLnParameter extends CmdLnValue {
 		return this;
 	}
 
+	/**
+	 * Sets a supplier which adds the children of this item when they are needed
+	 * for the first time: when an argument is looked up after this item while
+	 * parsing, when the children are retrieved or when the help text of this
+	 * item is printed. Items whose children are never needed do not create them.
+	 * Compiling the definition creates all the children.
+	 *
+	 * @param childrenSupplier
+	 * @return
+	 */
+	@Override
+	public CmdLnParameter setChildrenSupplier(CmdLnChildrenSupplier childrenSupplier) {
+		super.setChildrenSupplier(childrenSupplier);
+		return this;
+	}
+
+	/**
+	 * Sets a supplier which computes the default value of this item when it
+	 * is needed for the first time: when the value of the item is read while
+	 * the item has not been parsed, or when the default value is retrieved.
+	 * The supplier is called at most once, and its value is kept. Items which
+	 * are given on the command line do not need their default value.
+	 * The help output shows the placeholder instead, without computing the
+	 * default value.
+	 *
+	 * @param defaultValueSupplier
+	 * @param placeholder The text which is printed instead of the default value,
+	 * like <code>number of CPUs</code>
+	 * @return
+	 */
+	@Override
+	public CmdLnParameter setDefaultValueSupplier(CmdLnDefaultValueSupplier defaultValueSupplier, String placeholder) {
+		super.setDefaultValueSupplier(defaultValueSupplier, placeholder);
+		return this;
+	}
+
 	/**
 	 * Adds an alias to this item. An alias can be used instead of the
-	 * item's name.
+	 * item's name. The alias is only an additional name in the lookup
+	 * of the parent item, which leads directly to this item.
 	 *
 	 * @param aliasName
 	 * @return
 	 */
 	public CmdLnParameter addAlias(String aliasName) {
+		checkDefinitionChangeable();
 
-		if (alias.containsKey(aliasName)) {
+		if (hasAlias(aliasName)) {
 			throw new CommandOPError("Alias with the name '" + aliasName + "' already exists. Can not add alias.");
 		}
 
-		//Adds an alias parameter
-		CmdLnParameter item = getParentInternal().addParameter(aliasName, null);
-		item.setAliasOf(this);
-
-		alias.put(aliasName, item);
+		getParentInternal().addChildAlias(aliasName, this);
+		addAliasName(aliasName, false);
 
 		//Return actual parameter and not the alias
 		return this;
@@ -125,7 +162,9 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter setMandatory() {
-		isMandatory = true;
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_MANDATORY, true);
 		return this;
 	}
 
@@ -140,12 +179,112 @@ public class CmdLnParameter extends CmdLnValue {
 	 * arguments) results in a "false" value.
 	 *
 	 * @return
+	 * @throws CommandOPError if the item has a converter
 	 */
 	public CmdLnParameter setAsBoolean() {
-		isBoolean = true;
+		checkDefinitionChangeable();
+
+		setValueType(TYPE_BOOLEAN, null);
+		setFlag(FLAG_BOOLEAN, true);
+		return this;
+	}
+
+	/**
+	 * Defines this command line item as an item with int values. The values
+	 * are converted when they are parsed (a value which is not an int is an
+	 * error) and can be retrieved without conversion with getIntValue.
+	 *
+	 * @return
+	 * @throws CommandOPError if the default value is not an int, or if the
+	 * item is a boolean item or has a converter
+	 */
+	public CmdLnParameter setAsInt() {
+		setValueType(TYPE_INT, null);
+		return this;
+	}
+
+	/**
+	 * Defines this command line item as an item with long values. The values
+	 * are converted when they are parsed (a value which is not a long is an
+	 * error) and can be retrieved without conversion with getLongValue.
+	 *
+	 * @return
+	 * @throws CommandOPError if the default value is not a long, or if the
+	 * item is a boolean item or has a converter
+	 */
+	public CmdLnParameter setAsLong() {
+		setValueType(TYPE_LONG, null);
+		return this;
+	}
+
+	/**
+	 * Defines this command line item as an item with double values. The values
+	 * are converted when they are parsed (a value which is not a number is an
+	 * error) and can be retrieved without conversion with getDoubleValue.
+	 *
+	 * @return
+	 * @throws CommandOPError if the default value is not a number, or if the
+	 * item is a boolean item or has a converter
+	 */
+	public CmdLnParameter setAsDouble() {
+		setValueType(TYPE_DOUBLE, null);
+		return this;
+	}
+
+	/**
+	 * Defines this command line item as an item with values of the given enum.
+	 * A value is the name of one of the enum constants (ignoring case). The
+	 * constant is looked up when the value is parsed (a value which is not
+	 * a constant name is an error) and can be retrieved with getEnumValue.
+	 *
+	 * @param enumType
+	 * @return
+	 * @throws CommandOPError if the default value is not a constant name, or
+	 * if the item is a boolean item or has a converter
+	 */
+	public CmdLnParameter setAsEnum(Class<? extends Enum<?>> enumType) {
+		setValueType(TYPE_ENUM, enumType);
 		return this;
 	}
 
+	/**
+	 * Sets the converter which converts the values of this item into objects
+	 * of a richer type (see {@link CommandOPConverters} for the built-in
+	 * converters). The values are converted once when they are parsed (a value
+	 * which can not be converted is an error, like a value which does not pass
+	 * validation) and can be retrieved without conversion with getConvertedValue.
+	 * The type string is taken from the converter if none is set.
+	 *
+	 * @param converter
+	 * @return
+	 * @throws CommandOPError if the default value can not be converted, or if
+	 * the item is a boolean item
+	 */
+	@Override
+	public CmdLnParameter setConverter(CommandOPConverter<?> converter) {
+		super.setConverter(converter);
+		return this;
+	}
+
+	/**
+	 * Sets the converter which is registered in {@link CommandOPConverters}
+	 * for the given type (see {@link #setConverter(CommandOPConverter)})
+	 *
+	 * @param type
+	 * @return
+	 * @throws CommandOPError if there is no converter for the type, if
+	 * the default value can not be converted or if the item is a boolean item
+	 */
+	public CmdLnParameter setConverter(Class<?> type) {
+		CommandOPConverter<?> converter = CommandOPConverters.get(type);
+
+		if (converter == null) {
+			throw new CommandOPError("No converter registered for " + type.getName() + ".");
+		}
+
+		return setConverter(converter);
+	}
+
 	/**
 	 * Sets the status of the value-required-flag.<br>
 	 * An item which requires a value has to be given at least with
@@ -155,7 +294,9 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter setValueRequired() {
-		this.isValueRequired = true;
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_VALUE_REQUIRED, true);
 		return this;
 	}
 
@@ -168,6 +309,8 @@ public class CmdLnParameter extends CmdLnValue {
 	 */
 	@Override
 	public CmdLnParameter setHiddenInPrint() {
+		checkDefinitionChangeable();
+
 		super.setHiddenInPrint();
 		return this;
 	}
@@ -180,6 +323,8 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter setValidator(CommandOPValidator validator) {
+		checkDefinitionChangeable();
+
 		this.validator = validator;
 		return this;
 	}
@@ -192,7 +337,64 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter setAsMultiValueItem() {
-		this.isMultiValueItem = true;
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_MULTI_VALUE, true);
+		return this;
+	}
+
+	/**
+	 * Defines this item as a multi-value-item (see {@link #setAsMultiValueItem()})
+	 * which stores its values compactly: the characters of all the values are
+	 * kept in one buffer and a string is only created when a value is read.
+	 * This saves most of the memory per value for items with very many values,
+	 * at the cost of a new string for every read.
+	 *
+	 * @return
+	 */
+	public CmdLnParameter setAsCompactMultiValueItem() {
+		setAsMultiValueItem();
+		setCompactValues();
+		return this;
+	}
+
+	/**
+	 * Defines this item as a multi-value-item (see {@link #setAsMultiValueItem()})
+	 * whose values are not stored, but passed to the given consumer one by one
+	 * while parsing. The values are validated before they are passed on.
+	 * Only the number of values is kept, for the checks of the number of values,
+	 * thus the memory use does not grow with the number of values. Streamed
+	 * values are not checked for duplicates.
+	 *
+	 * @param valueConsumer
+	 * @return
+	 * @throws CommandOPError if the item is in a repeatable option, whose
+	 * values are checked per occurrence
+	 */
+	public CmdLnParameter setAsStreamingMultiValueItem(CmdLnValueConsumer valueConsumer) {
+		setValueConsumer(valueConsumer);
+		setAsMultiValueItem();
+		return this;
+	}
+
+	/**
+	 * Defines what happens when a multi-value-item is given a value which
+	 * it already has: the value is dropped ({@link #DUPLICATES_DROP}, the default),
+	 * added again ({@link #DUPLICATES_KEEP}) or rejected with an error
+	 * ({@link #DUPLICATES_REJECT}). Keeping the duplicates saves the
+	 * duplicate check for items with many values.
+	 *
+	 * @param policy
+	 * @return
+	 */
+	public CmdLnParameter setDuplicateValues(int policy) {
+		checkDefinitionChangeable();
+
+		if (policy < DUPLICATES_DROP || policy > DUPLICATES_REJECT) {
+			throw new CommandOPError("Unknown duplicate values policy " + policy + ".");
+		}
+
+		this.duplicateValues = policy;
 		return this;
 	}
 
@@ -207,7 +409,9 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	protected CmdLnParameter setAsMultiValueItem(int min, int max) {
-		this.isMultiValueItem = true;
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_MULTI_VALUE, true);
 		multiValueMin = min;
 		multiValueMax = max;
 		return this;
@@ -222,6 +426,8 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter setTypeString(String typeString) {
+		checkDefinitionChangeable();
+
 		this.typeString = typeString;
 		return this;
 	}
@@ -235,7 +441,9 @@ public class CmdLnParameter extends CmdLnValue {
 	 * @return
 	 */
 	public CmdLnParameter useFirstOccurrence(boolean useFirstOccurrence) {
-		this.useFirstOccurrence = useFirstOccurrence;
+		checkDefinitionChangeable();
+
+		setFlag(FLAG_FIRST_OCCURRENCE, useFirstOccurrence);
 		return this;
 	}
 
@@ -16,6 +16,7 @@
  */
 package ch.thn.app.commandop;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -87,6 +88,121 @@ public class CmdLnValue extends CmdLnItem {
 		return super.getValue(multiValuePos);
 	}
 
+	/**
+	 * Returns the value of this int item. If the item has not been parsed,
+	 * the default value is returned.
+	 *
+	 * @return
+	 * @throws CommandOPError if this is not an int item or if there is no value
+	 */
+	public int getIntValue() {
+		return getIntValue(0);
+	}
+
+	/**
+	 * Returns the value of this int item which is on the given position
+	 *
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if this is not an int item or if there is no value
+	 */
+	public int getIntValue(int multiValuePos) {
+		return (int)getTypedValue(peekState(), multiValuePos, TYPE_INT, TYPE_INT);
+	}
+
+	/**
+	 * Returns the value of this long (or int) item. If the item has not
+	 * been parsed, the default value is returned.
+	 *
+	 * @return
+	 * @throws CommandOPError if this is not a long item or if there is no value
+	 */
+	public long getLongValue() {
+		return getLongValue(0);
+	}
+
+	/**
+	 * Returns the value of this long (or int) item which is on the given position
+	 *
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if this is not a long item or if there is no value
+	 */
+	public long getLongValue(int multiValuePos) {
+		return getTypedValue(peekState(), multiValuePos, TYPE_LONG, TYPE_INT);
+	}
+
+	/**
+	 * Returns the value of this double (or int or long) item. If the item has
+	 * not been parsed, the default value is returned.
+	 *
+	 * @return
+	 * @throws CommandOPError if this is not a number item or if there is no value
+	 */
+	public double getDoubleValue() {
+		return getDoubleValue(0);
+	}
+
+	/**
+	 * Returns the value of this double (or int or long) item which is on the
+	 * given position
+	 *
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if this is not a number item or if there is no value
+	 */
+	public double getDoubleValue(int multiValuePos) {
+		return getDoubleValue(peekState(), multiValuePos);
+	}
+
+	/**
+	 * Returns the value of this boolean item
+	 *
+	 * @return
+	 * @throws CommandOPError if this is not a boolean item
+	 */
+	public boolean getBooleanValue() {
+		return getTypedValue(peekState(), 0, TYPE_BOOLEAN, TYPE_BOOLEAN) != 0;
+	}
+
+	/**
+	 * Returns the value of this enum item. If the item has not been parsed,
+	 * the default value is returned.
+	 *
+	 * @param enumType
+	 * @return
+	 * @throws CommandOPError if this is not an item of the given enum or if
+	 * there is no value
+	 */
+	public <E extends Enum<E>> E getEnumValue(Class<E> enumType) {
+		return getEnumValue(peekState(), enumType);
+	}
+
+	/**
+	 * Returns the value of this item as converted by its converter (see
+	 * {@link CmdLnParameter#setConverter(ch.thn.app.commandop.converter.CommandOPConverter)}).
+	 * If the item has not been parsed, the converted default value is returned.
+	 *
+	 * @param type
+	 * @return The converted value, or null if there is no value
+	 * @throws CommandOPError if the item does not have a converter for the given type
+	 */
+	public <T> T getConvertedValue(Class<T> type) {
+		return getConvertedValue(0, type);
+	}
+
+	/**
+	 * Returns the converted value of this item which is on the given position
+	 *
+	 * @param multiValuePos
+	 * @param type
+	 * @return The converted value, or null if there is no value
+	 * @throws CommandOPError if the item does not have a converter for the given type
+	 */
+	public <T> T getConvertedValue(int multiValuePos, Class<T> type) {
+		return getConvertedValue(peekState(), multiValuePos, type);
+	}
+
 	@Override
 	public String getDefaultValue() {
 		return super.getDefaultValue();
@@ -132,6 +248,26 @@ public class CmdLnValue extends CmdLnItem {
 		return super.isMultiValueItem();
 	}
 
+	@Override
+	public boolean isRepeatable() {
+		return super.isRepeatable();
+	}
+
+	@Override
+	public int getNumOfOccurrences() {
+		return super.getNumOfOccurrences();
+	}
+
+	@Override
+	public String getOccurrenceValue(int occurrence) {
+		return super.getOccurrenceValue(occurrence);
+	}
+
+	@Override
+	public List<String> getOccurrenceValues(int occurrence) {
+		return super.getOccurrenceValues(occurrence);
+	}
+
 	@Override
 	public boolean isShortOption() {
 		return super.isShortOption();
@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop;
+
+/**
+ * Receives the values of a streaming multi value item while the command line
+ * is parsed, instead of having them stored in the item. See
+ * {@link CmdLnParameter#setAsStreamingMultiValueItem(CmdLnValueConsumer)}.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public interface CmdLnValueConsumer {
+
+	/**
+	 * Called for each value of the given item, after the value has been
+	 * validated. When a compiled schema is parsed by several threads, this
+	 * method is called by all of them.
+	 *
+	 * @param item The item the value belongs to
+	 * @param value The value
+	 * @param multiValuePos The number of the value, starting with 0
+	 */
+	public void consumeValue(CmdLnParameter item, String value, int multiValuePos);
+
+}
@@ -16,7 +16,9 @@
  */
 package ch.thn.app.commandop;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -62,25 +64,108 @@ import java.util.Map;
 public class CommandOP extends CmdLnItem {
 
 
-	private PreParsedChain chainHead = null;
-
 	/**
 	 * Only the options
 	 */
 	private LinkedHashMap<String, CmdLnOption> options = null;
 
 	/**
-	 *
+	 * The aliases of the options and the short aliases, with the
+	 * option they stand for
+	 */
+	private LinkedHashMap<String, CmdLnOption> optionAliases = null;
+	private LinkedHashMap<String, CmdLnOption> shortOptions = null;
+
+	/**
+	 * The lookup index of the options, which is created when it is needed
+	 * and dropped when options are added
+	 */
+	private ItemIndex optionIndex = null;
+
+	/**
+	 * The short options with ASCII characters, indexed by the character.
+	 * Created together with the option index.
+	 */
+	private CmdLnItem[] shortOptionTable = null;
+
+	/**
+	 * The long options sorted by name, to find options by an abbreviation
+	 * of their name. Created together with the option index.
+	 */
+	private PrefixIndex abbreviationIndex = null;
+
+	/**
+	 * The names of the long options, for suggestions. Only created when an
+	 * unknown option is given.
 	 */
-	private LinkedHashMap<String, PreParsedItem> unknownArguments = null;
+	private volatile SuggestionIndex optionSuggestionIndex = null;
 
 	private LinkedList<CommandOPGroup> groups = null;
-	private LinkedList<String> errors = null;
-	private LinkedList<String> info = null;
 
-	private List<String> args = null;
+	/**
+	 * The result of the parsing with {@link #parse(List, boolean)}. The values
+	 * of this result are stored in the items.
+	 */
+	private CommandOPResult result = null;
+
+	/**
+	 * Increased with each reset. The state of an item is reset when its
+	 * generation is not the current one (see {@link CmdLnItem#getState()}).
+	 */
+	private int generation = 0;
 
 	private boolean exceptionAtFirstError = false;
+	private boolean isCompiled = false;
+	private boolean useArgumentSlices = false;
+	private boolean useAbbreviations = false;
+	private boolean releaseParseArtifacts = false;
+	private boolean useInterpolation = false;
+
+	/** The number of slots of the string pool, see {@link #internStrings(boolean)} */
+	private static final int STRING_POOL_SIZE = 4096;
+
+	/**
+	 * The pool for the names and values of the parsed arguments, or null
+	 * if they are not pooled
+	 */
+	private StringPool stringPool = null;
+	private boolean ignoreCase = false;
+
+	/**
+	 * Counts the changes of the definition tree, to find out if the
+	 * resolution indexes of the items have to be created again
+	 */
+	private int definitionVersion = 0;
+
+	/**
+	 * The items which need to be checked in {@link #validate(CommandOPResult)}
+	 * (mandatory items, items with required values and multi value items), in
+	 * the order of the flat item list
+	 */
+	private CmdLnItem[] validatedItems = null;
+
+	/**
+	 * The items whose children are supplied and have not been created yet,
+	 * in the order of the flat item list
+	 */
+	private CmdLnItem[] pendingItems = null;
+
+	/**
+	 * True if none of the items has child items
+	 */
+	private boolean isFlat = false;
+
+	/**
+	 * If false, flat definitions are parsed like definitions with child items
+	 * and all the items are validated, see {@link #useFlatResolution(boolean)}
+	 */
+	private boolean useFlatResolution = true;
+
+	/**
+	 * The definition version for which the validated items and the flat flag
+	 * have been prepared
+	 */
+	private int preparedVersion = -1;
 
 
 	/**
@@ -91,10 +176,10 @@ public class CommandOP extends CmdLnItem {
 	public CommandOP() {
 
 		options = new LinkedHashMap<String, CmdLnOption>();
+		optionAliases = new LinkedHashMap<String, CmdLnOption>();
+		shortOptions = new LinkedHashMap<String, CmdLnOption>();
 		groups = new LinkedList<CommandOPGroup>();
-		unknownArguments = new LinkedHashMap<String, PreParsedItem>();
-		errors = new LinkedList<String>();
-		info = new LinkedList<String>();
+		result = new CommandOPResult(this);
 
 	}
 
@@ -108,12 +193,48 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public CmdLnOption addOption(String name, String defaultValue, String description) {
+		checkDefinitionChangeable();
+
 		CmdLnOption i = new CmdLnOption(name, defaultValue, description);
 		i.setParent(this);
 		options.put(name, i);
+
+		optionsChanged();
+
 		return i;
 	}
 
+	/**
+	 * Adds an entry for the given alias name to the lookup of the options,
+	 * which points to the given option
+	 *
+	 * @param aliasName
+	 * @param option
+	 * @param isShortAlias
+	 */
+	protected void addOptionAlias(String aliasName, CmdLnOption option, boolean isShortAlias) {
+		checkDefinitionChangeable();
+
+		if (isShortAlias) {
+			shortOptions.put(aliasName, option);
+		} else {
+			optionAliases.put(aliasName, option);
+		}
+
+		optionsChanged();
+	}
+
+	/**
+	 * Drops the lookup indexes of the options
+	 *
+	 */
+	private void optionsChanged() {
+		optionIndex = null;
+		shortOptionTable = null;
+		abbreviationIndex = null;
+		optionSuggestionIndex = null;
+	}
+
 	/**
 	 * Adds a new option with the given parameters. This option will
 	 * be the root-item for further items
@@ -171,7 +292,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	protected PreParsedChain getPreParsedChain() {
-		return chainHead;
+		return result.getPreParsedChain();
 	}
 
 	/**
@@ -183,6 +304,212 @@ public class CommandOP extends CmdLnItem {
 		return options;
 	}
 
+	/**
+	 * Marks the definition as changed
+	 *
+	 */
+	protected void definitionChanged() {
+		definitionVersion++;
+	}
+
+	/**
+	 * Returns the number of changes of the definition tree
+	 *
+	 * @return
+	 */
+	protected int getDefinitionVersion() {
+		return definitionVersion;
+	}
+
+	/**
+	 * Returns the option with the given name or alias name, or null if there
+	 * is no such option. The name is looked up in lower case if the case
+	 * is ignored.
+	 *
+	 * @param name
+	 * @return
+	 */
+	protected CmdLnItem findOption(CharSequence name) {
+		return getOptionIndex().get(name);
+	}
+
+	/**
+	 * Returns the option with the given short option name, or null if there
+	 * is no such option. For ASCII characters the option is taken directly from
+	 * a table, without any string or hash lookup.
+	 *
+	 * @param c
+	 * @return
+	 */
+	protected CmdLnItem findShortOption(char c) {
+		if (c < 128) {
+			return getShortOptionTable()[c];
+		}
+
+		return shortOptions.get(String.valueOf(c));
+	}
+
+	/**
+	 * Returns the option with the given name, alias name or short option name,
+	 * or null if there is no such option
+	 *
+	 * @param name
+	 * @return
+	 */
+	protected CmdLnOption getOptionEntry(String name) {
+		CmdLnOption option = options.get(name);
+
+		if (option == null) {
+			option = optionAliases.get(name);
+		}
+
+		if (option == null) {
+			option = shortOptions.get(name);
+		}
+
+		return option;
+	}
+
+	/**
+	 * Returns the table of the short options with ASCII characters. The
+	 * table is created if it does not exist yet.
+	 *
+	 * @return
+	 */
+	private CmdLnItem[] getShortOptionTable() {
+		CmdLnItem[] table = shortOptionTable;
+
+		if (table == null) {
+			table = new CmdLnItem[128];
+
+			for (Map.Entry<String, CmdLnOption> entry : shortOptions.entrySet()) {
+				char c = entry.getKey().charAt(0);
+
+				if (c < 128) {
+					table[c] = entry.getValue();
+				}
+			}
+
+			shortOptionTable = table;
+		}
+
+		return table;
+	}
+
+	/**
+	 * Returns the long option whose name starts with the given abbreviation,
+	 * if there is exactly one such option. If the abbreviation matches more
+	 * than one option, an error is added to the result.
+	 *
+	 * @param result
+	 * @param abbreviation
+	 * @return The option, or null if the abbreviation matches no option or
+	 * more than one option
+	 * @throws CommandOPError
+	 */
+	private CmdLnItem findAbbreviatedOption(CommandOPResult result, CharSequence abbreviation) throws CommandOPError {
+		PrefixIndex index = getAbbreviationIndex();
+		CmdLnItem item = index.get(abbreviation);
+
+		if (item == null) {
+			List<String> names = index.getNames(abbreviation);
+
+			if (names.size() > 1) {
+				result.error("Option '" + abbreviation + "' is ambiguous. It could be one of " + names);
+			}
+		}
+
+		return item;
+	}
+
+	/**
+	 * Returns the index of the long options which is used to find options by
+	 * their abbreviations. The index is created if it does not exist yet.
+	 *
+	 * @return
+	 */
+	private PrefixIndex getAbbreviationIndex() {
+		PrefixIndex index = abbreviationIndex;
+
+		if (index == null) {
+			index = new PrefixIndex(ignoreCase ? foldNames(getOptionEntries()) : getOptionEntries());
+			abbreviationIndex = index;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the (long) options and their aliases, by their names. If a name
+	 * is used by an option and an alias, the option is kept.
+	 *
+	 * @return
+	 */
+	private LinkedHashMap<String, CmdLnOption> getOptionEntries() {
+		LinkedHashMap<String, CmdLnOption> entries = new LinkedHashMap<String, CmdLnOption>(options);
+
+		for (Map.Entry<String, CmdLnOption> entry : optionAliases.entrySet()) {
+			if (!entries.containsKey(entry.getKey())) {
+				entries.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Returns the names of the defined items which are similar to the unknown
+	 * token with the given index. Options are compared with the long options,
+	 * parameters with the items which can follow the previous item. No names
+	 * are suggested for short options.
+	 *
+	 * @param tokens
+	 * @param index
+	 * @param previousItem
+	 * @return
+	 */
+	private List<String> getSuggestions(PreParsedTokens tokens, int index, CmdLnItem previousItem) {
+		SuggestionIndex suggestionIndex = null;
+
+		if (tokens.isOption(index)) {
+			suggestionIndex = optionSuggestionIndex;
+
+			if (suggestionIndex == null) {
+				suggestionIndex = new SuggestionIndex(getOptionEntries().keySet(), ignoreCase);
+				optionSuggestionIndex = suggestionIndex;
+			}
+		} else if (tokens.isParameter(index)) {
+			if (previousItem == null) {
+				suggestionIndex = getSuggestionIndex();
+			} else {
+				suggestionIndex = previousItem.getSuggestionIndex();
+			}
+		} else {
+			return Collections.emptyList();
+		}
+
+		//The lower case name if the case is ignored
+		return suggestionIndex.getSuggestions(tokens.getKeySequence(index));
+	}
+
+	/**
+	 * Returns the lookup index of the options. The index is created if
+	 * it does not exist yet.
+	 *
+	 * @return
+	 */
+	private ItemIndex getOptionIndex() {
+		ItemIndex index = optionIndex;
+
+		if (index == null) {
+			LinkedHashMap<String, CmdLnOption> entries = getOptionEntries();
+			index = new ItemIndex(ignoreCase ? foldNames(entries) : entries, ignoreCase);
+			optionIndex = index;
+		}
+
+		return index;
+	}
+
 	/**
 	 * Returns the command-line parameter string list which has been
 	 * given as parameter when calling parse()
@@ -190,7 +517,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	protected List<String> getArgs() {
-		return args;
+		return result.getArgs();
 	}
 
 	/**
@@ -199,6 +526,8 @@ public class CommandOP extends CmdLnItem {
 	 * @param group
 	 */
 	public void addGroup(CommandOPGroup group) {
+		checkDefinitionChangeable();
+
 		groups.add(group);
 	}
 
@@ -211,21 +540,13 @@ public class CommandOP extends CmdLnItem {
 	 * @throws CommandOPError
 	 */
 	public CmdLnValue getOption(String option) {
-		if (!options.containsKey(option)) {
-			throw new CommandOPError("Item " + option + " has not been defined as option.");
-		}
+		CmdLnOption item = getOptionEntry(option);
 
-		CmdLnParameter item = options.get(option);
-
-		if (!item.isOption() && !item.isShortOption()) {
-			throw new CommandOPError("Item " + option + " is not a short or long option.");
+		if (item == null) {
+			throw new CommandOPError("Item " + option + " has not been defined as option.");
 		}
 
-		if (item.isAlias()) {
-			return (CmdLnValue) item.getAliasOf();
-		} else {
-			return item;
-		}
+		return item;
 	}
 
 	/**
@@ -235,7 +556,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public boolean hasOption(String option) {
-		CmdLnItem item = options.get(option);
+		CmdLnItem item = getOptionEntry(option);
 
 		if (item == null || item.isParameter()) {
 			return false;
@@ -251,7 +572,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public boolean hasParameter(String parameter) {
-		CmdLnItem item = children.get(parameter);
+		CmdLnItem item = findChild(parameter);
 
 		if (item == null || item.isOption()) {
 			return false;
@@ -267,7 +588,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public boolean hasUnknownArguments() {
-		return unknownArguments.size() > 0;
+		return result.hasUnknownArguments();
 	}
 
 	/**
@@ -277,7 +598,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public LinkedHashMap<String, PreParsedItem> getUnknownArguments() {
-		return unknownArguments;
+		return result.getUnknownArguments();
 	}
 
 	/**
@@ -287,7 +608,7 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public LinkedList<String> getErrorMessages() {
-		return errors;
+		return result.getErrorMessages();
 	}
 
 	/**
@@ -297,44 +618,41 @@ public class CommandOP extends CmdLnItem {
 	 * @return
 	 */
 	public LinkedList<String> getInfoMessages() {
-		return info;
+		return result.getInfoMessages();
 	}
 
 	/**
-	 * Resets all options and parameters (clears all values and resets all states)
+	 * Resets all options and parameters (clears all values and resets all states).
+	 * Only the generation is increased here, the state of each item is reset
+	 * when the item is used the next time.
 	 *
 	 */
 	@Override
 	public void reset() {
-		unknownArguments.clear();
-
-		for (CmdLnOption item : options.values()) {
-			item.reset();
-			resetAll(item.getChildrenInternal());
-		}
-
-		resetAll(getChildrenInternal());
+		result.reset();
 
-		super.reset();
+		generation++;
 	}
 
 	/**
-	 * Resets all items in the map and also all children
+	 * Returns the generation of the parsing states of the items, which is
+	 * increased with each reset
 	 *
-	 * @param children
+	 * @return
 	 */
-	private void resetAll(HashMap<String, CmdLnValue> children) {
-		for (CmdLnItem child : children.values()) {
-			child.reset();
-
-			//Reset children of the current item
-			resetAll(child.getChildrenInternal());
-		}
+	protected int getGeneration() {
+		return generation;
 	}
 
 	/**
 	 * This method parses the command line arguments which have to be given in
-	 * the list as "name=value" strings (or just "name" for boolean parameters).
+	 * the list as "name=value" strings (or just "name" for boolean parameters).<br />
+	 * <br />
+	 * If an item is given, the arguments are parsed as if they were given right
+	 * after that item: the item and the items on the path to it are set as parsed
+	 * (with their current values), and the arguments are looked up starting at
+	 * the item. Only the items below the given item (and the groups which only
+	 * contain such items) are validated. The given list is not modified.
 	 *
 	 *
 	 * @param item The item under which the command line arguments/properties should be parsed
@@ -347,32 +665,205 @@ public class CommandOP extends CmdLnItem {
 	 * @throws CommandOPError
 	 */
 	public boolean parse(CmdLnItem item, List<String> argsList, boolean overwriteParsed) throws CommandOPError {
-		args = argsList;
-		chainHead = null;
-
-		errors.clear();
-		info.clear();
-
-		//If an item is given, the path to that item is created by following the
-		//path upwards and creating all parameters and options with values.
-		while (item != null && item != this) {
-			String valuePart = "";
-			if (item.getValue() != null) {
-				valuePart = "=" + item.getValue();
+		if (item == this) {
+			item = null;
+		}
+
+		parseInto(result, argsList, overwriteParsed, item);
+
+		return !result.hasErrors();
+	}
+
+	/**
+	 * Parses the given command line arguments into the given result, as if
+	 * they were given after the given item (see {@link #parse(CmdLnItem, List, boolean)}).
+	 * The definition itself is only read, all the parsing state goes into the result.
+	 *
+	 * @param result The result to parse into
+	 * @param argsList The command line arguments/properties
+	 * @param overwriteParsed
+	 * @param scope The item under which the arguments are parsed, or null to
+	 * parse them at the top level
+	 * @throws CommandOPError
+	 */
+	protected void parseInto(CommandOPResult result, List<String> argsList, boolean overwriteParsed,
+			CmdLnItem scope) throws CommandOPError {
+		if (scope != null && scope.getRoot() != this) {
+			throw new CommandOPError("Item '" + scope.getName() + "' is not part of this definition.");
+		}
+
+		prepareDefinition();
+
+		result.startParsing(argsList);
+
+		try {
+			if (scope != null) {
+				parsePath(result, scope, overwriteParsed);
+			}
+
+			createPreParsedTokens(result, argsList);
+
+			postParse(result, overwriteParsed, scope);
+
+			if (useInterpolation) {
+				new ValueInterpolator(this, result).interpolate();
 			}
 
-			//Going upwards adding each part to the front of the list
-			argsList.add(0, item.getCmdLnTypePrefix() + item.getName() + valuePart);
-			item = item.getParent();
+			validate(result, scope);
+		} finally {
+			if (releaseParseArtifacts) {
+				result.releaseParseArtifacts();
+			}
 		}
+	}
 
-		createPreParsedChain(argsList);
+	/**
+	 * Sets the given item and all the items on the path to it as parsed,
+	 * starting at the top level item. The items keep their current values
+	 * (or get their default values if they have not been parsed yet).
+	 *
+	 * @param result
+	 * @param item
+	 * @param overwriteParsed
+	 * @throws CommandOPError
+	 */
+	private void parsePath(CommandOPResult result, CmdLnItem item, boolean overwriteParsed) throws CommandOPError {
+		if (item.getParent() != null) {
+			parsePath(result, item.getParent(), overwriteParsed);
+		}
+
+		String errormsg = null;
 
-		postParse(overwriteParsed);
+		if (item.isRepeatable()) {
+			//Parsing under a repeatable option adds another occurrence
+			errormsg = setOccurrenceValue(result, item, result.getValue(item), false);
+		} else if (!result.isParsed(item) || overwriteParsed) {
+			errormsg = setValue(result, item, result.getValue(item), false);
+		}
 
-		validate();
+		if (errormsg != null) {
+			addMessage(result, errormsg);
+		}
+	}
+
+	/**
+	 * Returns true if the given item is the given scope item or one of
+	 * the items below it
+	 *
+	 * @param item
+	 * @param scope
+	 * @return
+	 */
+	private static boolean isInScope(CmdLnItem item, CmdLnItem scope) {
+		while (item != null) {
+			if (item == scope) {
+				return true;
+			}
+
+			item = item.getParentInternal();
+		}
 
-		return !(errors.size() > 0);
+		return false;
+	}
+
+	/**
+	 * Compiles this definition into an immutable {@link CommandOPSchema}. Each
+	 * parsing with the schema returns its own {@link CommandOPResult}, thus
+	 * the schema can be used by many threads at the same time.<br />
+	 * <br />
+	 * Once compiled, the definition (options, parameters, aliases, groups...)
+	 * can not be changed anymore. All the supplied children are created
+	 * when compiling. Parsing with the parse-methods of this
+	 * object is still possible.
+	 *
+	 * @return
+	 */
+	public CommandOPSchema compile() {
+		LinkedList<CmdLnValue> itemsFlat = CommandOPTools.createFlatList(this);
+
+		prepareDefinition();
+
+		int index = 0;
+		for (CmdLnItem item : itemsFlat) {
+			item.setIndex(index++);
+			item.getChildIndex();
+
+			//A flat definition does not use the resolution indexes
+			if (!isFlat) {
+				item.getResolutionIndex();
+			}
+		}
+
+		//Create the lookup indexes now, so that they are not created
+		//concurrently while parsing
+		getChildIndex();
+		getOptionIndex();
+		getShortOptionTable();
+
+		if (useAbbreviations) {
+			getAbbreviationIndex();
+		}
+
+		isCompiled = true;
+
+		return new CommandOPSchema(this, index, exceptionAtFirstError);
+	}
+
+	/**
+	 * Collects the items which need to be checked when validating and finds
+	 * out if the definition is flat, if the definition has changed since the
+	 * last time. Children which are supplied and have not been created yet
+	 * are not created here.
+	 *
+	 */
+	private void prepareDefinition() {
+		if (preparedVersion == definitionVersion) {
+			return;
+		}
+
+		LinkedList<CmdLnValue> itemsFlat = CommandOPTools.createFlatList(this, false);
+		ArrayList<CmdLnItem> validated = new ArrayList<CmdLnItem>();
+		ArrayList<CmdLnItem> pending = new ArrayList<CmdLnItem>();
+		boolean flat = true;
+
+		if (ignoreCase) {
+			checkCaseCollisions(getChildEntries(), "of the non-option-parameters");
+			checkCaseCollisions(getOptionEntries(), "of the options");
+		}
+
+		for (CmdLnItem item : itemsFlat) {
+			if (item.hasPendingChildren()) {
+				//Children which have not been created yet are not looked at
+				flat = false;
+				pending.add(item);
+			} else if (item.hasChildren()) {
+				flat = false;
+
+				if (ignoreCase) {
+					checkCaseCollisions(item.getChildEntries(), "of the child parameters of '" + item.getName() + "'");
+				}
+			}
+
+			//Only these items can fail the validation
+			if (!useFlatResolution || item.isMandatory() || item.isValueRequired() || item.isMultiValueItem()) {
+				validated.add(item);
+			}
+		}
+
+		validatedItems = validated.toArray(new CmdLnItem[validated.size()]);
+		pendingItems = pending.toArray(new CmdLnItem[pending.size()]);
+		isFlat = flat && useFlatResolution;
+		preparedVersion = definitionVersion;
+	}
+
+	/**
+	 * Returns true if this definition has been compiled into a {@link CommandOPSchema}
+	 * and can not be changed anymore
+	 *
+	 * @return
+	 */
+	public boolean isCompiled() {
+		return isCompiled;
 	}
 
 	/**
@@ -469,45 +960,75 @@ public class CommandOP extends CmdLnItem {
 	/**
 	 * This method validates the parsed items
 	 *
+	 * @param result
+	 * @param scope If not null, only the items within the scope are validated
 	 * @throws CommandOPError
 	 */
-	private void validate() throws CommandOPError {
+	private void validate(CommandOPResult result, CmdLnItem scope) throws CommandOPError {
 
-		LinkedList<CmdLnValue> itemsFlat = CommandOPTools.createFlatList(this);
+		//Children might have been created while parsing
+		prepareDefinition();
+
+		//The supplied children of a parsed item are validated as well, even
+		//if nothing after the item has needed them
+		boolean created = false;
+
+		for (CmdLnItem item : pendingItems) {
+			if (result.isParsed(item)) {
+				item.materializeChildren();
+				created = true;
+			}
+		}
+
+		if (created) {
+			prepareDefinition();
+		}
+
+		for (CmdLnItem item : validatedItems) {
+			if (scope != null && !isInScope(item, scope)) {
+				continue;
+			}
+
+			CmdLnItem block = item.getRepeatableBlock();
+
+			if (block != null && result.peekState(block).occurrences > 0) {
+				validateOccurrences(result, item, block);
+			} else {
+				block = null;
+			}
 
-		for (CmdLnItem item : itemsFlat) {
 			//Mandatory
 			//If the item has a parent item, only validate it if the parent item is parsed too
-			if (!item.hasParent() || item.hasParent() && item.getParentInternal().isParsed()) {
-				if (item.isMandatory() && !item.isParsed()) {
+			if (block == null && (!item.hasParent() || item.hasParent() && result.isParsed(item.getParentInternal()))) {
+				if (item.isMandatory() && !result.isParsed(item)) {
 					String parent = "";
 					if (item.hasParent()) {
 						parent = " with parent '" + item.getParent().getName() + "'";
 					}
 
-					error("Item '" + item.getName() + "'" + parent + " is mandatory");
+					result.error("Item '" + item.getName() + "'" + parent + " is mandatory");
 				}
 			}
 
 			//Required value
-			if (item.isValueRequired() && item.isParsed() && item.getValue() == null) {
+			if (block == null && item.isValueRequired() && result.isParsed(item) && result.getValue(item) == null) {
 				String parent = "";
 				if (item.hasParent()) {
 					parent = " with parent '" + item.getParent().getName() + "'";
 				}
 
-				error("Item '" + item.getName() + "'" + parent + " requires a value");
+				result.error("Item '" + item.getName() + "'" + parent + " requires a value");
 			}
 
-			//Minimum number of values
-			if (item.isParsed() && item.isMultiValueItem()
-					&& item.getNumOfValues() < item.getMultiValuesRangeMin()) {
+			//Minimum number of values (of each occurrence, see above, in a block)
+			if (block == null && result.isParsed(item) && item.isMultiValueItem()
+					&& result.getNumOfValues(item) < item.getMultiValuesRangeMin()) {
 				String parent = "";
 				if (item.hasParent()) {
 					parent = " with parent '" + item.getParent().getName() + "'";
 				}
 
-				error("Item '" + item.getName() + "'" + parent + " needs at least " +
+				result.error("Item '" + item.getName() + "'" + parent + " needs at least " +
 						item.getMultiValuesRangeMin() + " values.");
 			}
 		}
@@ -516,6 +1037,22 @@ public class CommandOP extends CmdLnItem {
 
 		for (CommandOPGroup group : groups) {
 
+			if (scope != null) {
+				//Only the groups with all their items within the scope
+				boolean inScope = true;
+
+				for (CmdLnItem item : group.getItems().values()) {
+					if (!isInScope(item, scope)) {
+						inScope = false;
+						break;
+					}
+				}
+
+				if (!inScope) {
+					continue;
+				}
+			}
+
 			if (group.getMode() == CommandOPGroup.MODE_EXCLUDE
 					|| group.getMode() == CommandOPGroup.MODE_EXCLUDE_ONE) {
 				//The given group items can not appear together
@@ -523,12 +1060,12 @@ public class CommandOP extends CmdLnItem {
 				int numOfExisting = 0;
 				for (CmdLnItem item : group.getItems().values()) {
 
-					if (item.isParsed()) {
+					if (result.isParsed(item)) {
 						numOfExisting++;
 
 						if (numOfExisting > 1) {
 							//Another one has been found already
-							error("More than one item of the EXCLUDE-group '" + group.getName() + "' found. " +
+							result.error("More than one item of the EXCLUDE-group '" + group.getName() + "' found. " +
 									"Only one of the following items is allowed: " + group.getItems().keySet());
 							break;
 						}
@@ -538,7 +1075,7 @@ public class CommandOP extends CmdLnItem {
 				}
 
 				if (group.getMode() == CommandOPGroup.MODE_EXCLUDE_ONE && numOfExisting == 0) {
-					error("The EXCLUDE_ONE-group '" + group.getName() +
+					result.error("The EXCLUDE_ONE-group '" + group.getName() +
 							"' needs at least one (but not more) of its items. " +
 							"Items in the group are: " + group.getItems().keySet());
 				}
@@ -551,14 +1088,14 @@ public class CommandOP extends CmdLnItem {
 
 				for (CmdLnItem item : group.getItems().values()) {
 					if (group.getMode() == CommandOPGroup.MODE_INCLUDE ) {
-						if (!item.isParsed()) {
+						if (!result.isParsed(item)) {
 							//One of the group items does not exist
-							error("One or more items of the INCLUDE-group '" + group.getName() +
+							result.error("One or more items of the INCLUDE-group '" + group.getName() +
 									"' are missing. Needed items are: " + group.getItems().keySet());
 							break;
 						}
 					} else if (group.getMode() == CommandOPGroup.MODE_INCLUDE_ONE) {
-						if (item.isParsed()) {
+						if (result.isParsed(item)) {
 							hasOneParsedItem = true;
 							break;
 						}
@@ -567,7 +1104,7 @@ public class CommandOP extends CmdLnItem {
 
 				if (!hasOneParsedItem) {
 					//At least one of the group items is needed, but there was none
-					error("No item of the INCLUDE-group '" + group.getName() +
+					result.error("No item of the INCLUDE-group '" + group.getName() +
 							"' has been found. At least one of these items is needed: " + group.getItems().keySet());
 				}
 
@@ -579,78 +1116,87 @@ public class CommandOP extends CmdLnItem {
 
 
 	/**
-	 * Follows the pre parsed chain of options/parameters one by one, looking
+	 * Follows the pre parsed tokens of options/parameters one by one, looking
 	 * for the corresponding defined item (or its alias). If a defined item is found,
 	 * its value is set.
 	 *
+	 * @param result
 	 * @param overwriteParsed
+	 * @param scope The item after which the arguments are given, or null
 	 * @throws CommandOPError
 	 */
-	private void postParse(boolean overwriteParsed) throws CommandOPError {
+	private void postParse(CommandOPResult result, boolean overwriteParsed, CmdLnItem scope) throws CommandOPError {
 
-		PreParsedChain currentChain = chainHead;
+		PreParsedTokens tokens = result.getPreParsedTokens();
 		CmdLnItem currentItem = null;
-		CmdLnItem previousItem = null;
+		//Within a scope, the arguments are given after the scope item
+		CmdLnItem previousItem = scope;
 
-		while (currentChain != null) {
+		for (int i = 0; i < tokens.size(); i++) {
+			CharSequence name = tokens.getNameSequence(i);
+			CharSequence key = tokens.getKeySequence(i);
+			//The kind of the found item, if it is not the kind of the token
+			String definedAs = null;
 
-			if (currentChain.isOption() || currentChain.isShortOption()) {
+			if (!tokens.isParameter(i)) {
 				//If it is an option it means that the "tree" starts from the beginning because an
 				//option is the first item.
 
 				//It's an option, so take the item from the root
-				currentItem = options.get(currentChain.getName());
+				if (tokens.isShortOption(i)) {
+					currentItem = findShortOption(name.charAt(0));
+
+					if (currentItem == null && (currentItem = findOption(key)) != null) {
+						//A long option with a single character name
+						definedAs = OPTION_DESC;
+					}
+				} else {
+					currentItem = findOption(key);
+
+					if (currentItem == null && name.length() == 1
+							&& (currentItem = findShortOption(name.charAt(0))) != null) {
+						//A short option given with the long prefix
+						definedAs = SHORTOPTION_DESC;
+					}
+
+					if (currentItem == null && useAbbreviations && key.length() > 0) {
+						currentItem = findAbbreviatedOption(result, key);
+					}
+				}
 
 				//An option is the beginning of a "tree". Set as previous item for next loop.
 				previousItem = currentItem;
+			} else if (isFlat) {
+				//In a flat definition no item has children, thus all the parameters
+				//are non-option-parameters of the root. The same items are found as
+				//in the tree below, just without following the previous item.
+				currentItem = getChildIndex().get(key);
+
+				if (previousItem != null && currentItem != null) {
+					//Set as previous item for next loop.
+					previousItem = currentItem;
+				}
 			} else if (previousItem == null) {
 				//If it is not an option or short option, but there is no previous item,
 				//it means it is a non-option-parameter.
 
 				//It's a no-option-parameter, so take the item from the root
-				currentItem = children.get(currentChain.getName());
+				currentItem = getChildIndex().get(key);
 
 				//A non-option-parameter does not have a parent
 				previousItem = null;
 			} else {
 				//Parameter of an option
 
-				//Check if previous item has the current chain name as child. If yes,
-				//use it. If no, travel up the "tree" to see where the parent of the current
-				//chain name is (if there is one)
-				if (previousItem.hasChild(currentChain.getName())) {
-					currentItem = previousItem.getChild(currentChain.getName());
+				//Look up the current name in the items which can follow the previous
+				//item: its children, or the children of its parents (if there is one)
+				currentItem = previousItem.getResolutionIndex().get(key);
 
+				if (currentItem != null) {
 					//Set as previous item for next loop.
 					previousItem = currentItem;
-				} else {
-					//The previous item does not have the current chain name as child.
-					//-> Start looking at the parent of the previous item
-					currentItem = previousItem.getParentInternal();
-					boolean found = false;
-
-					//Check all children and children of parents
-					while (currentItem != null) {
-						if (currentItem.hasChild(currentChain.getName())) {
-							currentItem = currentItem.getChild(currentChain.getName());
-							found = true;
-							break;
-						}
-
-						currentItem = currentItem.getParent();
-					}
-
-					if (!found) {
-						//The item has not been found in the defined items
-						currentItem = null;
-					} else {
-						//Set as previous item for next loop.
-						previousItem = currentItem;
-					}
-
 				}
 
-
 			}
 
 
@@ -658,29 +1204,41 @@ public class CommandOP extends CmdLnItem {
 			//If a defined item has been found, set its data
 			if (currentItem != null) {
 
+				if (stringPool != null && currentItem.getName().contentEquals(name)) {
+					//Keep the name of the definition instead of the parsed name
+					tokens.setName(i, currentItem.getName());
+				}
+
 				//Check if current command line item type matches the type of the defined item
-				if (currentChain.isOption() != currentItem.isOption()
-						|| currentChain.isShortOption() != currentItem.isShortOption()
-						|| currentChain.isParameter() != currentItem.isParameter()) {
+				if (definedAs != null) {
+					result.info("Item " + name + " is defined as " + definedAs + ", but it is given as " + tokens.getTypeDescString(i) + " on the command line. Item ignored.");
 
-					info("Item " + currentItem.getName() + " is defined as " + currentItem.getTypeDescString() + ", but it is given as " + currentChain.getTypeDescString() + " on the command line. Item ignored.");
+					//"Item not found"
+					currentItem = null;
+				} else if (tokens.isParameter(i) != currentItem.isParameter()) {
+
+					result.info("Item " + currentItem.getName() + " is defined as " + currentItem.getTypeDescString() + ", but it is given as " + tokens.getTypeDescString(i) + " on the command line. Item ignored.");
 
 					//"Item not found"
 					currentItem = null;
+				} else if (isInOccurrence(result, currentItem)) {
+					//Within a repeatable option block, each occurrence has its own values
+					String errormsg = setOccurrenceValue(result, currentItem, tokens.getValueSequence(i), false);
+
+					if (errormsg != null) {
+						addMessage(result, errormsg);
+					} else {
+						result.getState(currentItem).cmdLnPos = i;
+					}
 				} else {
 					//Only set value if not yet parsed or overwrite allowed
-					if (!currentItem.isParsed() || overwriteParsed) {
-						String errormsg = currentItem.setValue(currentChain.getValue());
+					if (!result.isParsed(currentItem) || overwriteParsed) {
+						String errormsg = setValue(result, currentItem, tokens.getValueSequence(i), false);
 
 						if (errormsg != null) {
-							//The returned string from setValue might contain the [INFO] prefix
-							if (errormsg.startsWith("[INFO] ")) {
-								info(errormsg.substring("[INFO] ".length()));
-							} else {
-								error(errormsg);
-							}
+							addMessage(result, errormsg);
 						} else {
-							currentItem.setCmdLnPos(currentChain.getChainPos());
+							result.getState(currentItem).cmdLnPos = i;
 						}
 					}
 				}
@@ -694,102 +1252,146 @@ public class CommandOP extends CmdLnItem {
 				//is such a multi value item and if the current item is not given as
 				//name=value pair
 				if (previousItem != null && previousItem.isMultiValueItem()
-						&& currentChain.getValue() == null) {
+						&& !tokens.hasValue(i)) {
 					//If the previous item was a multi value item and the current item
 					//has not been found, it is assumed that the current item is actually
 					//a value of the multi value item, thus the name is the value
 
 					//The values of the multi value item are given as "value1 value2"
-					String value = currentChain.getName();
+					CharSequence value = name;
 
 
-					String errormsg = previousItem.addMultiValue(value);
+					String errormsg = null;
+
+					if (isInOccurrence(result, previousItem)) {
+						errormsg = setOccurrenceValue(result, previousItem, value, true);
+					} else {
+						errormsg = setValue(result, previousItem, value, true);
+					}
 
 					if (errormsg != null) {
-						//The returned string from setValue might contain the [INFO] prefix
-						if (errormsg.startsWith("[INFO] ")) {
-							info(errormsg.substring("[INFO] ".length()));
-						} else {
-							error(errormsg);
-						}
+						addMessage(result, errormsg);
 					}
 				} else {
 					//It is not the value of a multi value item
 
+					List<String> suggestions = getSuggestions(tokens, i, previousItem);
+					String didYouMean = "";
+
+					if (!suggestions.isEmpty()) {
+						didYouMean = " (did you mean '" + suggestions.get(0) + "'";
+
+						for (int j = 1; j < suggestions.size(); j++) {
+							didYouMean += ", '" + suggestions.get(j) + "'";
+						}
+
+						didYouMean += "?)";
+					}
+
 					if (previousItem != null) {
 						//There was a previous item
-						info("Unknown " + currentChain.getTypeDescString() + " '" + currentChain.getName() + "' given after " + previousItem.getTypeDescString() + " " + previousItem.getName());
+						result.info("Unknown " + tokens.getTypeDescString(i) + " '" + name + "' given after " + previousItem.getTypeDescString() + " " + previousItem.getName() + didYouMean);
 					} else {
 						//There was no previous item
-						info("Unknown " + currentChain.getTypeDescString() + " '" + currentChain.getName() + "' given");
+						result.info("Unknown " + tokens.getTypeDescString(i) + " '" + name + "' given" + didYouMean);
 					}
 
-					unknownArguments.put(currentChain.getName(), currentChain);
+					PreParsedItem unknown = tokens.createItem(i);
+					unknown.setSuggestions(suggestions);
+
+					result.getUnknownArguments().put(tokens.getName(i), unknown);
 				}
 			}
-
-			//Take the next item from the post parsed chain
-			currentChain = currentChain.getNext();
 		}
 
 	}
 
 
 	/**
-	 * Goes through all the given command line arguments and puts them
-	 * into objects, chained up after each other in the order in which they
-	 * are given on the command line. When a new {@link PreParsedChain}-object
-	 * is created, short options are split up, the
-	 * item name and value are split and a flag is set whether it is an
+	 * Goes through all the given command line arguments and stores them
+	 * as tokens, in the order in which they are given on the command line.
+	 * When a new token is added, short options are split up, the
+	 * item name and value are split and the kind is set whether it is an
 	 * option, a short option or a parameter.
 	 *
+	 * @param result The result to store the tokens in
 	 * @param args The command line arguments
 	 */
-	private void createPreParsedChain(List<String> args) {
+	private void createPreParsedTokens(CommandOPResult result, List<String> args) {
 
-		PreParsedChain lastChain = null;
+		PreParsedTokens tokens = new PreParsedTokens(args.size());
+
+		ArgumentScanner scanner = new ArgumentScanner();
+
+		int argPos = -1;
+
+		//An option or parameter without name is only kept if it is the last
+		//token and not the first one, like the chain which has been built before
+		int emptyNameArgPos = -1;
+		int emptyNameKind = 0;
+		CharSequence emptyNameValue = null;
 
-		Arrays.asList(args);
 		for (String a : args) {
+			argPos++;
 
 			if (a == null || a.length() == 0) {
 				continue;
 			}
 
-			if (CommandOPTools.isShortOption(a)) {
-				//SHORT option
+			scanner.scan(a, ignoreCase);
 
-				String shortOptions = CommandOPTools.getOption(a);
+			if (scanner.getKind() == ArgumentScanner.SHORTOPTION) {
+				//SHORT option
 
-				String shortOptionsValue = CommandOPTools.getOptionValue(a);
+				int nameEnd = scanner.getNameEnd();
 
+				if (nameEnd > scanner.getNameStart()) {
+					emptyNameArgPos = -1;
+				}
 
 				//Use each character as option
-				for (int j = 0; j < shortOptions.length(); j++) {
-					lastChain = new PreParsedChain(CommandOPTools.OPTIONSPREFIX_SHORT + shortOptions.charAt(j), lastChain);
+				for (int j = scanner.getNameStart(); j < nameEnd; j++) {
+					char c = a.charAt(j);
 
-					if (chainHead == null) {
-						chainHead = lastChain;
+					if (c == '-') {
+						//A prefix character within combined short options is
+						//taken as an option without name
+						tokens.add(ArgumentScanner.OPTION, "", null, argPos);
+					} else {
+						tokens.add(ArgumentScanner.SHORTOPTION, ArgumentScanner.getShortName(c), null, argPos);
 					}
 				}
 
-				//The last option can have a value
-				if (shortOptionsValue != null && shortOptionsValue.length() > 0) {
-					lastChain.setValue(shortOptionsValue);
+				//The last option can have a value. Without options (like "-=value"),
+				//the value is given to the token before.
+				if (tokens.size() > 0
+						&& scanner.hasValue() && scanner.getValueStart() < a.length()) {
+					tokens.setLastValue(getScannedValue(scanner));
 				}
 
 			} else {
 				//LONG option
 				//PARAMETER
 
-				PreParsedChain tempChain = new PreParsedChain(a, lastChain);
-
-				if (tempChain.getName() != null && tempChain.getName().length() > 0) {
-					lastChain = tempChain;
+				if (scanner.getNameEnd() > scanner.getNameStart()) {
+					if (useArgumentSlices) {
+						tokens.add(scanner.getKind(), scanner.getNameSlice(), scanner.getValueSlice(), argPos);
+					} else if (stringPool != null) {
+						tokens.add(scanner.getKind(), stringPool.intern(scanner.getNameSlice()), getScannedValue(scanner), argPos);
+					} else {
+						tokens.add(scanner.getKind(), scanner.getName(), scanner.getValue(), argPos);
+					}
 
-					if (chainHead == null) {
-						chainHead = lastChain;
+					//The lower case name is only there if the name is not in lower case already
+					if (scanner.getFoldedName() != null) {
+						tokens.setLastKey(stringPool == null ? scanner.getFoldedName() : stringPool.intern(scanner.getFoldedName()));
 					}
+
+					emptyNameArgPos = -1;
+				} else if (tokens.size() > 0) {
+					emptyNameArgPos = argPos;
+					emptyNameKind = scanner.getKind();
+					emptyNameValue = getScannedValue(scanner);
 				}
 
 			}
@@ -797,29 +1399,175 @@ public class CommandOP extends CmdLnItem {
 
 		}
 
+		if (emptyNameArgPos >= 0) {
+			tokens.add(emptyNameKind, "", emptyNameValue, emptyNameArgPos);
+		}
+
+		result.setPreParsedTokens(tokens);
+
 	}
 
 	/**
+	 * Returns the value of the scanned argument, as slice if argument slices
+	 * are used, as pooled string if strings are pooled, or as new string
 	 *
+	 * @param scanner
+	 * @return
+	 */
+	private CharSequence getScannedValue(ArgumentScanner scanner) {
+		if (useArgumentSlices) {
+			return scanner.getValueSlice();
+		} else if (stringPool != null) {
+			CharSequence value = scanner.getValueSlice();
+			return (value == null ? null : stringPool.intern(value));
+		} else {
+			return scanner.getValue();
+		}
+	}
+
+	/**
+	 * Returns the given value as string, from the string pool if strings are pooled
+	 *
+	 * @param value
+	 * @return
+	 */
+	private String toValueString(CharSequence value) {
+		if (value == null || value instanceof String) {
+			return (String)value;
+		} else if (stringPool != null) {
+			return stringPool.intern(value);
+		} else {
+			return value.toString();
+		}
+	}
+
+	/**
+	 * Adds the message which has been returned by setValue to the result, as
+	 * info message if it has the [INFO] prefix, otherwise as error
 	 *
-	 * @param errorMessage
+	 * @param result
+	 * @param message
 	 * @throws CommandOPError
 	 */
-	private void error(String errorMessage) throws CommandOPError {
-		errors.add(errorMessage);
-		if (exceptionAtFirstError) {
-			throw new CommandOPError(errorMessage);
+	private void addMessage(CommandOPResult result, String message) throws CommandOPError {
+		//The returned string from setValue might contain the [INFO] prefix
+		if (message.startsWith("[INFO] ")) {
+			result.info(message.substring("[INFO] ".length()));
+		} else {
+			result.error(message);
+		}
+	}
+
+	/**
+	 * Sets the given value of the given item in the given result. This is
+	 * where a value which is given as slice of an argument becomes a string.
+	 *
+	 * @param result
+	 * @param item
+	 * @param value
+	 * @param multiValue If set to <code>true</code>, the value is added to the
+	 * values of the item
+	 * @return Returns an info or error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	private String setValue(CommandOPResult result, CmdLnItem item, CharSequence value, boolean multiValue) {
+		CmdLnItemState state = result.getState(item);
+		String string = toValueString(value);
+
+		//Values with references are resolved after parsing. Boolean values are
+		//only true or false and streamed values are gone once they are consumed.
+		boolean uninterpolated = useInterpolation && string != null
+				&& ValueInterpolator.hasReference(string)
+				&& !item.isBoolean() && !item.hasValueConsumer();
+
+		if (uninterpolated) {
+			result.addUninterpolatedItem(item);
 		}
+
+		return item.setValue(state, string,
+				multiValue ? item.getValueCount(state) : 0, uninterpolated);
 	}
 
 	/**
+	 * Returns true if the given item is a repeatable option or an item within
+	 * the block of a repeatable option which has been given already. The values
+	 * of such items are stored per occurrence.
 	 *
+	 * @param result
+	 * @param item
+	 * @return
+	 */
+	private boolean isInOccurrence(CommandOPResult result, CmdLnItem item) {
+		CmdLnItem block = item.getRepeatableBlock();
+
+		if (block == null) {
+			return false;
+		}
+
+		return block == item || result.peekState(block).occurrences > 0;
+	}
+
+	/**
+	 * Sets the given value of the given item for the current occurrence of
+	 * the repeatable option block it is in. If the item is the repeatable
+	 * option itself, a new occurrence is started.
+	 *
+	 * @param result
+	 * @param item
+	 * @param value
+	 * @param multiValue If set to <code>true</code>, the value is another value
+	 * of the multi value item in the current occurrence
+	 * @return Returns an info or error message if setting the value failed, or null if
+	 * everything was OK.
+	 */
+	private String setOccurrenceValue(CommandOPResult result, CmdLnItem item, CharSequence value, boolean multiValue) {
+		CmdLnItemState state = result.getState(item);
+
+		CmdLnItemState blockState = result.getState(item.getRepeatableBlock());
+
+		if (item.isRepeatable() && !multiValue) {
+			blockState.occurrences++;
+		}
+
+		return item.setOccurrenceValue(state, blockState.occurrences - 1, toValueString(value));
+	}
+
+	/**
+	 * Checks the mandatory child items and the required values of each
+	 * occurrence of the repeatable option block the given item is in
 	 *
-	 * @param infoMessage
+	 * @param result
+	 * @param item
+	 * @param block
 	 * @throws CommandOPError
 	 */
-	private void info(String infoMessage) {
-		info.add(infoMessage);
+	private void validateOccurrences(CommandOPResult result, CmdLnItem item, CmdLnItem block) throws CommandOPError {
+		int occurrences = result.peekState(block).occurrences;
+		CmdLnItemState state = result.peekState(item);
+		CmdLnItemState parentState = (item == block ? null : result.peekState(item.getParentInternal()));
+		String parent = "";
+
+		if (item.hasParent()) {
+			parent = " with parent '" + item.getParent().getName() + "'";
+		}
+
+		for (int occurrence = 0; occurrence < occurrences; occurrence++) {
+			if (!state.isGivenInOccurrence(occurrence)) {
+				//The parent of a mandatory item needs to be given in the same occurrence
+				if (item.isMandatory() && item != block
+						&& (item.getParentInternal() == block || parentState.isGivenInOccurrence(occurrence))) {
+					result.error("Item '" + item.getName() + "'" + parent + " is mandatory (occurrence " +
+							(occurrence + 1) + " of '" + block.getName() + "')");
+				}
+			} else if (item.isValueRequired() && state.getOccurrenceValue(occurrence) == null) {
+				result.error("Item '" + item.getName() + "'" + parent + " requires a value (occurrence " +
+						(occurrence + 1) + " of '" + block.getName() + "')");
+			} else if (item.isMultiValueItem()
+					&& state.getOccurrenceValues(occurrence).size() < item.getMultiValuesRangeMin()) {
+				result.error("Item '" + item.getName() + "'" + parent + " needs at least " +
+						item.getMultiValuesRangeMin() + " values (occurrence " + (occurrence + 1) + " of '" + block.getName() + "')");
+			}
+		}
 	}
 
 	/**
@@ -829,7 +1577,141 @@ public class CommandOP extends CmdLnItem {
 	 */
 	public void exceptionAtFirstError(boolean e) {
 		exceptionAtFirstError = e;
+		result.setExceptionAtFirstError(e);
+	}
+
+	/**
+	 * If set to false, a flat definition (without child items) is parsed like
+	 * a definition with child items, following the previous item to find the
+	 * parameters, and all the items are validated instead of only the ones
+	 * which can fail. The results are the same both ways, this is only there
+	 * to compare them.
+	 *
+	 * @param use
+	 */
+	protected void useFlatResolution(boolean use) {
+		checkDefinitionChangeable();
+
+		useFlatResolution = use;
+		//Prepared again with the next parsing
+		preparedVersion = -1;
+	}
+
+	/**
+	 * If set to true, the names and values of the parsed arguments are not
+	 * copied into new strings. They are kept as views into the original
+	 * arguments, which are used directly to look up the items. A string is only
+	 * created when a value is stored in an item. This saves memory when
+	 * very large values are given inline (like <code>--data=&lt;base64&gt;</code>).
+	 *
+	 * @param use
+	 */
+	public void useArgumentSlices(boolean use) {
+		checkDefinitionChangeable();
+
+		useArgumentSlices = use;
+	}
+
+	/**
+	 * If set to true, the case of the names of options and parameters is
+	 * ignored, thus <code>--MaxConnections</code> is the same as
+	 * <code>--maxconnections</code>. The case of short options is not
+	 * ignored, since <code>-v</code> and <code>-V</code> are often different
+	 * options. Values are never changed.<br />
+	 * Names which only differ in case can not be defined on the same level
+	 * when the case is ignored. Such names cause an error when the
+	 * definition is compiled (or parsed for the first time).
+	 *
+	 * @param ignore
+	 */
+	public void ignoreCase(boolean ignore) {
+		checkDefinitionChangeable();
+
+		ignoreCase = ignore;
+
+		optionsChanged();
+		//The indexes of the items are created again as well
+		definitionChanged();
+	}
+
+	/**
+	 * Returns true if the case of the names is ignored
+	 *
+	 * @return
+	 */
+	protected boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * If set to true, long options can be given with any abbreviation of their
+	 * name (or of one of their aliases) as long as the abbreviation is unique,
+	 * like <code>--verb</code> for <code>--verbose</code>. An abbreviation which
+	 * matches more than one option is reported as error. Options which are given
+	 * with their full name are always found, even if their name is the beginning
+	 * of another option name.<br />
+	 * Parameters can not be abbreviated, since a parameter is not distinguishable
+	 * from a value of a multi value item.
+	 *
+	 * @param use
+	 */
+	public void useAbbreviations(boolean use) {
+		checkDefinitionChangeable();
+
+		useAbbreviations = use;
 	}
 
+	/**
+	 * If set to true, the pre-parsed tokens (and the pre-parsed chain) and the
+	 * list of the arguments are not kept in the result once parsing is done.
+	 * Only the values and messages are kept, which saves the memory of the
+	 * arguments for results which are kept around. The pre-parsed items and the
+	 * arguments can not be printed then.
+	 *
+	 * @param release
+	 */
+	public void releaseParseArtifacts(boolean release) {
+		checkDefinitionChangeable();
+
+		releaseParseArtifacts = release;
+	}
+
+	/**
+	 * If set to true, the names and values of the parsed arguments are taken
+	 * from a pool of strings, so that names and values which are given again
+	 * and again (in many parsings of similar arguments) are stored as one string
+	 * instead of a new copy each time. The names of the found items are replaced
+	 * by the names of their definitions. The pool has a fixed size and only
+	 * references its strings weakly, it is shared by all the parsings with this
+	 * definition and its compiled schema.
+	 *
+	 * @param intern
+	 */
+	public void internStrings(boolean intern) {
+		checkDefinitionChangeable();
+
+		stringPool = (intern ? new StringPool(STRING_POOL_SIZE) : null);
+	}
+
+	/**
+	 * If set to true, references in the values of the parsed arguments are
+	 * replaced once all the arguments have been parsed. A reference
+	 * <code>${name}</code> stands for the value of the option or
+	 * non-option-parameter with that name (or of one of its children, like
+	 * <code>${option.child}</code>), or for a system property or environment
+	 * variable with that name, for example <code>--logdir=${basedir}/logs</code>.
+	 * <code>$${</code> stands for a literal <code>${</code>. Unknown and cyclic
+	 * references are errors.<br />
+	 * Values without references are not touched, and the values of boolean
+	 * items, of the occurrences of repeatable options and the default values
+	 * are never interpolated.
+	 *
+	 * @param use
+	 */
+	public void useInterpolation(boolean use) {
+		checkDefinitionChangeable();
+
+		useInterpolation = use;
+	}
 
 }
@@ -97,8 +97,8 @@ public class CommandOPGroup {
 
 	/**
 	 * Adds the item with the given name as group member. All the defined
-	 * items are searched, looking for a matching name. If more than one item
-	 * have a matching name, adding fails. Thus, only unambiguous items can be
+	 * items are searched, looking for a matching name (or alias name). If more
+	 * than one item have a matching name, adding fails. Thus, only unambiguous items can be
 	 * added with this method.
 	 * 
 	 * @param itemName
@@ -112,7 +112,7 @@ public class CommandOPGroup {
 		CmdLnItem itemToAdd = null;
 
 		for (CmdLnItem item : flatList) {
-			if (item.getName().equals(itemName)) {
+			if (item.getName().equals(itemName) || item.hasAlias(itemName)) {
 				if (itemToAdd == null) {
 					itemToAdd = item;
 				} else {
@@ -92,9 +92,26 @@ public class CommandOPPrinter {
 	}
 
 
+	/**
+	 * Returns some help text for the usage of the given item and all
+	 * the items below it
+	 *
+	 * @param item
+	 * @return
+	 */
+	public String getHelpText(CmdLnItem item) {
+		String s = "Command line help:\n";
+
+		s = s + getDefinedItems(CommandOPTools.createFlatList(item, true), false, false, true, true);
+
+		return s;
+	}
+
+
 	/**
 	 * Returns a formatted list showing the defined items with value (if selected) and
-	 * description
+	 * description. Children which are supplied and have not been created yet
+	 * are not created, their parent item is marked with "..." instead.
 	 *
 	 * @param flat
 	 * @param withValue
@@ -104,9 +121,24 @@ public class CommandOPPrinter {
 	 */
 	public String getDefinedItems(boolean flat, boolean withValue,
 			boolean withDescription, boolean hideHidden) {
+		return getDefinedItems(CommandOPTools.createFlatList(cmdop, false), flat,
+				withValue, withDescription, hideHidden);
+	}
+
+	/**
+	 * Returns a formatted list showing the given items
+	 *
+	 * @param flatList
+	 * @param flat
+	 * @param withValue
+	 * @param withDescription
+	 * @param hideHidden
+	 * @return
+	 */
+	private String getDefinedItems(LinkedList<CmdLnValue> flatList, boolean flat, boolean withValue,
+			boolean withDescription, boolean hideHidden) {
 
 		LinkedList<StringBuilder> lines = new LinkedList<StringBuilder>();
-		LinkedList<CmdLnValue> flatList = CommandOPTools.createFlatList(cmdop);
 
 		int longestLine = 0;
 
@@ -117,10 +149,6 @@ public class CommandOPPrinter {
 				continue;
 			}
 
-			if (item.isAlias()) {
-				continue;
-			}
-
 			StringBuilder line = new StringBuilder();
 
 			if (item.isParameter() && !flat) {
@@ -140,14 +168,10 @@ public class CommandOPPrinter {
 			}
 
 			//Short options (only if no flat output)
-			if (!flat && item.hasAlias()) {
-				for (CmdLnItem alias : item.getAlias().values()) {
-					if (!alias.isShortOption()) {
-						continue;
-					}
-
+			if (!flat) {
+				for (String alias : item.getShortAliasNames()) {
 					line.append(CommandOPTools.OPTIONSPREFIX_SHORT);
-					line.append(alias.getName());
+					line.append(alias);
 					line.append(", ");
 				}
 			}
@@ -177,22 +201,37 @@ public class CommandOPPrinter {
 				line.append("]");
 			}
 
+			//Children which have not been created yet
+			if (item.hasPendingChildren()) {
+				line.append(" ...");
+			}
+
 			//Value
 			if (withValue) {
 				line.append(CommandOPTools.ITEM_VALUE_SEPARATOR);
 
 				//Whether the item is a multi value item or not, all the values
-				//are shown. If its not a multi value item, there is only one value to show
-				for (int i = 0; i < item.getNumOfValues(); i++) {
-					line.append(item.getValue(i));
-
-					if (i < item.getNumOfValues() - 1) {
-						line.append(" ");
+				//are shown. If its not a multi value item, there is only one value to show.
+				//The values of streaming items are not stored and can not be shown.
+				int numOfValues = (item.hasValueConsumer() ? 0 : item.getNumOfValues());
+
+				if (!item.isParsed() && item.hasPendingDefaultValue()) {
+					//Do not compute the default value just for printing
+					line.append(item.getPrintedDefaultValue());
+				} else {
+					for (int i = 0; i < numOfValues; i++) {
+						line.append(item.getValue(i));
+
+						if (i < numOfValues - 1) {
+							line.append(" ");
+						}
 					}
 				}
 
-				if (item.getDefaultValue() != null) {
-					line.append(" (" + item.getDefaultValue() + ")");
+				String defaultValue = item.getPrintedDefaultValue();
+
+				if (defaultValue != null) {
+					line.append(" (" + defaultValue + ")");
 				}
 			}
 
@@ -201,17 +240,13 @@ public class CommandOPPrinter {
 				String commaToAppend = null;
 				StringBuilder sbAliases = new StringBuilder();
 
-				for (CmdLnItem alias : item.getAlias().values()) {
-					if (alias.isShortOption()) {
-						continue;
-					}
-
+				for (String alias : item.getAliasNames()) {
 					if (commaToAppend != null) {
 						sbAliases.append(commaToAppend);
 						commaToAppend = null;
 					}
 
-					sbAliases.append(alias.getName());
+					sbAliases.append(alias);
 					commaToAppend = ", ";
 				}
 
@@ -0,0 +1,624 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The outcome of parsing command line arguments: the values and parsed flags of
+ * the items, the unknown arguments and the error and info messages.<br />
+ * <br />
+ * A result which is returned by {@link CommandOPSchema#parse(List)} holds its own
+ * values, independent of the item definitions. The items of the schema are only
+ * used as keys to retrieve the values, thus any number of results can exist
+ * (and be created concurrently) for the same schema.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class CommandOPResult {
+
+	private CommandOP cmdop = null;
+
+	/**
+	 * The parsing states, indexed by the item index. If this array is null,
+	 * the states are the ones stored in the items themselves.
+	 */
+	private CmdLnItemState[] states = null;
+
+	private PreParsedTokens tokens = null;
+
+	private LinkedHashMap<String, PreParsedItem> unknownArguments = null;
+
+	private LinkedList<String> errors = null;
+	private LinkedList<String> info = null;
+
+	private List<String> args = null;
+
+	/**
+	 * The items with values which contain references, which are resolved
+	 * after parsing. Created for the first such item.
+	 */
+	private LinkedHashSet<CmdLnItem> uninterpolated = null;
+
+	private boolean exceptionAtFirstError = false;
+
+
+	/**
+	 * Creates a result which stores the values in the items of the given
+	 * {@link CommandOP} tree
+	 *
+	 * @param cmdop
+	 */
+	protected CommandOPResult(CommandOP cmdop) {
+		this.cmdop = cmdop;
+
+		unknownArguments = new LinkedHashMap<String, PreParsedItem>();
+		errors = new LinkedList<String>();
+		info = new LinkedList<String>();
+	}
+
+	/**
+	 * Creates a result which stores the values of the given number of
+	 * compiled items on its own
+	 *
+	 * @param cmdop
+	 * @param numOfItems
+	 * @param exceptionAtFirstError
+	 */
+	protected CommandOPResult(CommandOP cmdop, int numOfItems, boolean exceptionAtFirstError) {
+		this(cmdop);
+
+		this.exceptionAtFirstError = exceptionAtFirstError;
+
+		states = new CmdLnItemState[numOfItems];
+	}
+
+	/**
+	 * Returns the parsing state of the given item. The state is created if it
+	 * does not exist yet.
+	 *
+	 * @param item
+	 * @return
+	 */
+	protected CmdLnItemState getState(CmdLnItem item) {
+		if (states == null) {
+			return item.getState();
+		}
+
+		int index = getIndex(item);
+
+		if (states[index] == null) {
+			states[index] = new CmdLnItemState();
+
+			if (item.hasCompactValues()) {
+				states[index].setCompactValues();
+			}
+		}
+
+		return states[index];
+	}
+
+	/**
+	 * Returns the parsing state of the given item, without creating it. An unparsed
+	 * state is returned for items which have not been touched while parsing.
+	 *
+	 * @param item
+	 * @return
+	 */
+	protected CmdLnItemState peekState(CmdLnItem item) {
+		if (states == null) {
+			return item.peekState();
+		}
+
+		CmdLnItemState state = states[getIndex(item)];
+
+		if (state == null) {
+			return CmdLnItemState.UNPARSED;
+		}
+
+		return state;
+	}
+
+	/**
+	 * Returns the index of the given item, making sure that it is part of the
+	 * schema of this result
+	 *
+	 * @param item
+	 * @return
+	 * @throws CommandOPError
+	 */
+	private int getIndex(CmdLnItem item) {
+		int index = item.getIndex();
+
+		if (item.getRoot() != cmdop || index < 0 || index >= states.length) {
+			throw new CommandOPError("Item '" + item.getName() + "' is not part of the schema of this result.");
+		}
+
+		return index;
+	}
+
+	/**
+	 * Prepares this result for parsing the given arguments. Clears the messages
+	 * of the last parsing.
+	 *
+	 * @param args
+	 */
+	protected void startParsing(List<String> args) {
+		this.args = args;
+		tokens = null;
+		uninterpolated = null;
+
+		errors.clear();
+		info.clear();
+	}
+
+	/**
+	 * Clears the unknown arguments
+	 *
+	 */
+	protected void reset() {
+		unknownArguments.clear();
+	}
+
+	/**
+	 * Marks the given item as item with values which contain references
+	 *
+	 * @param item
+	 */
+	protected void addUninterpolatedItem(CmdLnItem item) {
+		if (uninterpolated == null) {
+			uninterpolated = new LinkedHashSet<CmdLnItem>();
+		}
+
+		uninterpolated.add(item);
+	}
+
+	/**
+	 * Returns true if the given item has values which contain references
+	 *
+	 * @param item
+	 * @return
+	 */
+	protected boolean isUninterpolated(CmdLnItem item) {
+		return uninterpolated != null && uninterpolated.contains(item);
+	}
+
+	/**
+	 * Returns the items with values which contain references
+	 *
+	 * @return
+	 */
+	protected Set<CmdLnItem> getUninterpolatedItems() {
+		if (uninterpolated == null) {
+			return Collections.emptySet();
+		}
+
+		return uninterpolated;
+	}
+
+	/**
+	 * Drops the pre-parsed tokens and the arguments, which are not needed
+	 * anymore once parsing is done
+	 *
+	 */
+	protected void releaseParseArtifacts() {
+		tokens = null;
+		args = null;
+	}
+
+	/**
+	 * Sets the pre-parsed tokens
+	 *
+	 * @param tokens
+	 */
+	protected void setPreParsedTokens(PreParsedTokens tokens) {
+		this.tokens = tokens;
+	}
+
+	/**
+	 * Returns the pre-parsed tokens
+	 *
+	 * @return
+	 */
+	protected PreParsedTokens getPreParsedTokens() {
+		return tokens;
+	}
+
+	/**
+	 * Returns the first object of the pre-parsed chain. The chain is created
+	 * from the pre-parsed tokens when it is requested for the first time.
+	 *
+	 * @return
+	 */
+	protected PreParsedChain getPreParsedChain() {
+		if (tokens == null) {
+			return null;
+		}
+
+		return tokens.getChain();
+	}
+
+	/**
+	 *
+	 *
+	 * @param e
+	 */
+	protected void setExceptionAtFirstError(boolean e) {
+		exceptionAtFirstError = e;
+	}
+
+	/**
+	 *
+	 *
+	 * @param errorMessage
+	 * @throws CommandOPError
+	 */
+	protected void error(String errorMessage) throws CommandOPError {
+		errors.add(errorMessage);
+		if (exceptionAtFirstError) {
+			throw new CommandOPError(errorMessage);
+		}
+	}
+
+	/**
+	 *
+	 *
+	 * @param infoMessage
+	 */
+	protected void info(String infoMessage) {
+		info.add(infoMessage);
+	}
+
+	/**
+	 * Returns the command-line parameter string list which has been
+	 * parsed into this result
+	 *
+	 * @return
+	 */
+	public List<String> getArgs() {
+		return args;
+	}
+
+	/**
+	 * Returns true if the given item has been parsed
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean isParsed(CmdLnItem item) {
+		return peekState(item).isParsed;
+	}
+
+	/**
+	 * Returns the value of the given item, or if no value is set the default value
+	 * is returned. If the item is defined as multi-value-item, the first
+	 * available value is returned.
+	 *
+	 * @param item
+	 * @return
+	 */
+	public String getValue(CmdLnItem item) {
+		return getValue(item, 0);
+	}
+
+	/**
+	 * Returns the value of the given item which is on the given position. If the given
+	 * position does not exist, null is returned.
+	 *
+	 * @param item
+	 * @param multiValuePos
+	 * @return
+	 */
+	public String getValue(CmdLnItem item, int multiValuePos) {
+		return item.getValue(peekState(item), multiValuePos);
+	}
+
+	/**
+	 * Returns the value of the given int item (see {@link CmdLnParameter#setAsInt()}).
+	 * If the item has not been parsed, the default value is returned.
+	 *
+	 * @param item
+	 * @return
+	 * @throws CommandOPError if the item is not an int item or if there is no value
+	 */
+	public int getIntValue(CmdLnItem item) {
+		return getIntValue(item, 0);
+	}
+
+	/**
+	 * Returns the value of the given int item which is on the given position
+	 *
+	 * @param item
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if the item is not an int item or if there is no value
+	 */
+	public int getIntValue(CmdLnItem item, int multiValuePos) {
+		return (int)item.getTypedValue(peekState(item), multiValuePos, CmdLnItem.TYPE_INT, CmdLnItem.TYPE_INT);
+	}
+
+	/**
+	 * Returns the value of the given long (or int) item. If the item has not
+	 * been parsed, the default value is returned.
+	 *
+	 * @param item
+	 * @return
+	 * @throws CommandOPError if the item is not a long item or if there is no value
+	 */
+	public long getLongValue(CmdLnItem item) {
+		return getLongValue(item, 0);
+	}
+
+	/**
+	 * Returns the value of the given long (or int) item which is on the given position
+	 *
+	 * @param item
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if the item is not a long item or if there is no value
+	 */
+	public long getLongValue(CmdLnItem item, int multiValuePos) {
+		return item.getTypedValue(peekState(item), multiValuePos, CmdLnItem.TYPE_LONG, CmdLnItem.TYPE_INT);
+	}
+
+	/**
+	 * Returns the value of the given double (or int or long) item. If the item
+	 * has not been parsed, the default value is returned.
+	 *
+	 * @param item
+	 * @return
+	 * @throws CommandOPError if the item is not a number item or if there is no value
+	 */
+	public double getDoubleValue(CmdLnItem item) {
+		return getDoubleValue(item, 0);
+	}
+
+	/**
+	 * Returns the value of the given double (or int or long) item which is on
+	 * the given position
+	 *
+	 * @param item
+	 * @param multiValuePos
+	 * @return
+	 * @throws CommandOPError if the item is not a number item or if there is no value
+	 */
+	public double getDoubleValue(CmdLnItem item, int multiValuePos) {
+		return item.getDoubleValue(peekState(item), multiValuePos);
+	}
+
+	/**
+	 * Returns the value of the given boolean item
+	 *
+	 * @param item
+	 * @return
+	 * @throws CommandOPError if the item is not a boolean item
+	 */
+	public boolean getBooleanValue(CmdLnItem item) {
+		return item.getTypedValue(peekState(item), 0, CmdLnItem.TYPE_BOOLEAN, CmdLnItem.TYPE_BOOLEAN) != 0;
+	}
+
+	/**
+	 * Returns the value of the given enum item. If the item has not been
+	 * parsed, the default value is returned.
+	 *
+	 * @param item
+	 * @param enumType
+	 * @return
+	 * @throws CommandOPError if the item is not an item of the given enum
+	 * or if there is no value
+	 */
+	public <E extends Enum<E>> E getEnumValue(CmdLnItem item, Class<E> enumType) {
+		return item.getEnumValue(peekState(item), enumType);
+	}
+
+	/**
+	 * Returns the value of the given item as converted by its converter. If the
+	 * item has not been parsed, the converted default value is returned.
+	 *
+	 * @param item
+	 * @param type
+	 * @return The converted value, or null if there is no value
+	 * @throws CommandOPError if the item does not have a converter for the given type
+	 */
+	public <T> T getConvertedValue(CmdLnItem item, Class<T> type) {
+		return getConvertedValue(item, 0, type);
+	}
+
+	/**
+	 * Returns the converted value of the given item which is on the given position
+	 *
+	 * @param item
+	 * @param multiValuePos
+	 * @param type
+	 * @return The converted value, or null if there is no value
+	 * @throws CommandOPError if the item does not have a converter for the given type
+	 */
+	public <T> T getConvertedValue(CmdLnItem item, int multiValuePos, Class<T> type) {
+		return item.getConvertedValue(peekState(item), multiValuePos, type);
+	}
+
+	/**
+	 * Returns all the values of the given item
+	 *
+	 * @param item
+	 * @return
+	 */
+	public List<String> getMultiValues(CmdLnItem item) {
+		return item.getMultiValues(peekState(item));
+	}
+
+	/**
+	 * Returns the number of values of the given item
+	 *
+	 * @param item
+	 * @return
+	 */
+	public int getNumOfValues(CmdLnItem item) {
+		return item.getNumOfValues(peekState(item));
+	}
+
+	/**
+	 * Returns the number of times the repeatable option block the given item
+	 * is in (see {@link CmdLnOption#setRepeatable()}) has been given, or 0 if
+	 * the item is not within such a block
+	 *
+	 * @param item
+	 * @return
+	 */
+	public int getNumOfOccurrences(CmdLnItem item) {
+		if (item.getRepeatableBlock() == null) {
+			return 0;
+		}
+
+		return peekState(item.getRepeatableBlock()).occurrences;
+	}
+
+	/**
+	 * Returns true if the given item has been given in the given occurrence
+	 * of the repeatable option block it is in
+	 *
+	 * @param item
+	 * @param occurrence
+	 * @return
+	 */
+	public boolean isGivenInOccurrence(CmdLnItem item, int occurrence) {
+		return peekState(item).isGivenInOccurrence(occurrence);
+	}
+
+	/**
+	 * Returns the value of the given item in the given occurrence of the
+	 * repeatable option block it is in. If the item has not been given in that
+	 * occurrence, the default value is returned.
+	 *
+	 * @param item
+	 * @param occurrence
+	 * @return
+	 */
+	public String getOccurrenceValue(CmdLnItem item, int occurrence) {
+		return item.getOccurrenceValue(peekState(item), occurrence);
+	}
+
+	/**
+	 * Returns the values of the given multi value item in the given occurrence
+	 * of the repeatable option block it is in
+	 *
+	 * @param item
+	 * @param occurrence
+	 * @return The values, or an empty list if the item has no values in that
+	 * occurrence
+	 */
+	public List<String> getOccurrenceValues(CmdLnItem item, int occurrence) {
+		return item.getOccurrenceValues(peekState(item), occurrence);
+	}
+
+	/**
+	 * Returns the position of the given item on the command line
+	 *
+	 * @param item
+	 * @return
+	 */
+	public int getCmdLnPos(CmdLnItem item) {
+		return peekState(item).cmdLnPos;
+	}
+
+	/**
+	 * Returns true if the option has been defined and parsed
+	 *
+	 * @param option
+	 * @return
+	 */
+	public boolean hasOption(String option) {
+		CmdLnItem item = cmdop.getOptionEntry(option);
+
+		if (item == null || item.isParameter()) {
+			return false;
+		}
+
+		return isParsed(item);
+	}
+
+	/**
+	 * Returns true if the parameter has been defined and parsed
+	 *
+	 * @param parameter
+	 * @return
+	 */
+	public boolean hasParameter(String parameter) {
+		CmdLnItem item = cmdop.findChild(parameter);
+
+		if (item == null || item.isOption()) {
+			return false;
+		}
+
+		return isParsed(item);
+	}
+
+	/**
+	 * Returns <code>true</code> if there are any arguments found during the parsing
+	 * process which were not defined
+	 *
+	 * @return
+	 */
+	public boolean hasUnknownArguments() {
+		return unknownArguments.size() > 0;
+	}
+
+	/**
+	 * The returned map contains all the arguments which were found during parsing
+	 * and were not defined
+	 *
+	 * @return
+	 */
+	public LinkedHashMap<String, PreParsedItem> getUnknownArguments() {
+		return unknownArguments;
+	}
+
+	/**
+	 * Returns <code>true</code> if errors occurred during parsing
+	 *
+	 * @return
+	 */
+	public boolean hasErrors() {
+		return errors.size() > 0;
+	}
+
+	/**
+	 * Returns all the error messages of the errors which occurred during
+	 * parsing.
+	 *
+	 * @return
+	 */
+	public LinkedList<String> getErrorMessages() {
+		return errors;
+	}
+
+	/**
+	 * Returns all the info messages which occurred during parsing.
+	 *
+	 * @return
+	 */
+	public LinkedList<String> getInfoMessages() {
+		return info;
+	}
+
+}
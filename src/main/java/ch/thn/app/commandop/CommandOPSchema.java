@@ -0,0 +1,172 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled {@link CommandOP} definition. A schema is created with
+ * {@link CommandOP#compile()} once the definition is complete. Each call to one of
+ * the parse-methods returns a new {@link CommandOPResult} which holds the parsed
+ * values, thus a schema can be shared and used by many threads at the same time
+ * without any locking.<br />
+ * <br />
+ * The items of the schema (see {@link #getOption(String)} and {@link #getParameter(String)})
+ * are used as keys to retrieve the values from a result:
+ * <pre>
+ * CommandOPSchema schema = cmdop.compile();
+ * CmdLnValue port = schema.getOption("server").getChild("port");
+ *
+ * CommandOPResult result = schema.parse(args);
+ * String value = result.getValue(port);
+ * </pre>
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class CommandOPSchema {
+
+	private final CommandOP cmdop;
+
+	private final int numOfItems;
+
+	private final boolean exceptionAtFirstError;
+
+
+	/**
+	 *
+	 * @param cmdop The compiled definition
+	 * @param numOfItems The number of items in the compiled definition
+	 * @param exceptionAtFirstError
+	 */
+	protected CommandOPSchema(CommandOP cmdop, int numOfItems, boolean exceptionAtFirstError) {
+		this.cmdop = cmdop;
+		this.numOfItems = numOfItems;
+		this.exceptionAtFirstError = exceptionAtFirstError;
+	}
+
+	/**
+	 * Returns the {@link CommandOP} definition of this schema, for example to
+	 * print the help text with the {@link CommandOPPrinter}
+	 *
+	 * @return
+	 */
+	public CommandOP getCommandOP() {
+		return cmdop;
+	}
+
+	/**
+	 * Returns the option with the given name. If the given name
+	 * is an alias, the corresponding item is returned.
+	 *
+	 * @param option
+	 * @return
+	 * @throws CommandOPError
+	 */
+	public CmdLnValue getOption(String option) {
+		return cmdop.getOption(option);
+	}
+
+	/**
+	 * Returns the parameter with the given name. If the given name is an
+	 * alias, the corresponding parameter is returned.
+	 *
+	 * @param name
+	 * @return
+	 * @throws CommandOPError
+	 */
+	public CmdLnValue getParameter(String name) {
+		return cmdop.getParameter(name);
+	}
+
+	/**
+	 * This method parses the command line arguments which have to be given in
+	 * the list as "name=value" strings (or just "name" for boolean parameters).
+	 * The given list is not modified.
+	 *
+	 * @param argsList The command line arguments/properties
+	 * @return A new result with the parsed values and messages
+	 * @throws CommandOPError if an error occurs and the schema has been compiled
+	 * with {@link CommandOP#exceptionAtFirstError(boolean)} set
+	 */
+	public CommandOPResult parse(List<String> argsList) throws CommandOPError {
+		return parse(null, argsList);
+	}
+
+	/**
+	 * This method parses the command line arguments which have to be given in
+	 * the list as "name=value" strings (or just "name" for boolean parameters),
+	 * as if they were given after the given item. Only the items below the given
+	 * item are validated, see {@link CommandOP#parse(CmdLnItem, List, boolean)}.
+	 * The given list is not modified.
+	 *
+	 * @param item The item under which the command line arguments/properties
+	 * should be parsed, or null to parse them at the top level
+	 * @param argsList The command line arguments/properties
+	 * @return A new result with the parsed values and messages
+	 * @throws CommandOPError
+	 */
+	public CommandOPResult parse(CmdLnItem item, List<String> argsList) throws CommandOPError {
+		CommandOPResult result = new CommandOPResult(cmdop, numOfItems, exceptionAtFirstError);
+
+		cmdop.parseInto(result, argsList, false, item);
+
+		return result;
+	}
+
+	/**
+	 * This method parses the command line arguments which have to be given in
+	 * the array as "name=value" strings (or just "name" for boolean parameters),
+	 * as if they were given after the given item
+	 *
+	 * @param item The item under which the command line arguments/properties
+	 * should be parsed, or null to parse them at the top level
+	 * @param argsArray The command line arguments/properties
+	 * @return A new result with the parsed values and messages
+	 * @throws CommandOPError
+	 */
+	public CommandOPResult parse(CmdLnItem item, String[] argsArray) throws CommandOPError {
+		return parse(item, Arrays.asList(argsArray));
+	}
+
+	/**
+	 * This method parses the command line arguments which have to be given in
+	 * the array as "name=value" strings (or just "name" for boolean parameters).
+	 *
+	 * @param argsArray The command line arguments/properties
+	 * @return A new result with the parsed values and messages
+	 * @throws CommandOPError
+	 */
+	public CommandOPResult parse(String[] argsArray) throws CommandOPError {
+		return parse(Arrays.asList(argsArray));
+	}
+
+	/**
+	 * This method parses the command line arguments which have to be given in
+	 * the map as "name"=>"value" pairs (or just "name"=>null for boolean parameters).
+	 *
+	 * @param argsMap The command line arguments/properties
+	 * @return A new result with the parsed values and messages
+	 * @throws CommandOPError
+	 */
+	public CommandOPResult parse(Map<Object, Object> argsMap) throws CommandOPError {
+		return parse(CommandOPTools.mapToKeyValueList(argsMap));
+	}
+
+}
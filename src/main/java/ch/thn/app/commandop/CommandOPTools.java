@@ -40,7 +40,13 @@ public class CommandOPTools {
 	 * @return
 	 */
 	public static String removeOptionPrefix(String optionString) {
-		return optionString.replaceAll("^[" + OPTIONSPREFIX_SHORT + "]{1}", "").replaceAll("^[" + OPTIONSPREFIX_LONG + "]{1}", "");
+		if (optionString.startsWith(OPTIONSPREFIX_LONG)) {
+			return optionString.substring(OPTIONSPREFIX_LONG.length());
+		} else if (optionString.startsWith(OPTIONSPREFIX_SHORT)) {
+			return optionString.substring(OPTIONSPREFIX_SHORT.length());
+		}
+
+		return optionString;
 	}
 
 	/**
@@ -144,9 +150,11 @@ public class CommandOPTools {
 	 * @return
 	 */
 	private static String getName(String argsString) {
-		if (argsString.contains(ITEM_VALUE_SEPARATOR)) {
+		int separator = argsString.indexOf(ITEM_VALUE_SEPARATOR);
+
+		if (separator >= 0) {
 			//Returns everything in front of the first ITEM_VALUE_SEPARATOR
-			return argsString.split(ITEM_VALUE_SEPARATOR)[0];
+			return argsString.substring(0, separator);
 		} else {
 			return argsString;
 		}
@@ -159,9 +167,11 @@ public class CommandOPTools {
 	 * @return
 	 */
 	private static String getValue(String argsString) {
-		if (argsString.contains(ITEM_VALUE_SEPARATOR)) {
+		int separator = argsString.indexOf(ITEM_VALUE_SEPARATOR);
+
+		if (separator >= 0) {
 			//Returns everything after the first ITEM_VALUE_SEPARATOR
-			return argsString.substring(argsString.indexOf(ITEM_VALUE_SEPARATOR) + 1);
+			return argsString.substring(separator + 1);
 		} else {
 			return null;
 		}
@@ -175,14 +185,31 @@ public class CommandOPTools {
 	 * @return
 	 */
 	public static LinkedList<CmdLnValue> createFlatList(Collection<CmdLnValue> items) {
+		return createFlatList(items, true);
+	}
+
+	/**
+	 * Puts all the existing child items in a linked list, recursively
+	 * following child-items if there are any
+	 * 
+	 * @param items
+	 * @param withSupplied If set to <code>false</code>, children which are
+	 * supplied and have not been created yet are left out (and not created)
+	 * @return
+	 */
+	public static LinkedList<CmdLnValue> createFlatList(Collection<CmdLnValue> items, boolean withSupplied) {
 
 		LinkedList<CmdLnValue> itemsFlat = new LinkedList<>();
 
 		for (CmdLnValue item : items) {
 			itemsFlat.add(item);
 
+			if (!withSupplied && item.hasPendingChildren()) {
+				continue;
+			}
+
 			if (item.hasChildren()) {
-				itemsFlat.addAll(createFlatList(item.getChildrenInternal().values()));
+				itemsFlat.addAll(createFlatList(item.getChildrenInternal().values(), withSupplied));
 			}
 		}
 
@@ -198,6 +225,19 @@ public class CommandOPTools {
 	 * @return
 	 */
 	public static LinkedList<CmdLnValue> createFlatList(CmdLnItem item) {
+		return createFlatList(item, true);
+	}
+
+	/**
+	 * Puts all the existing child items in a linked list, recursively
+	 * following child-items if there are any
+	 * 
+	 * @param item
+	 * @param withSupplied If set to <code>false</code>, children which are
+	 * supplied and have not been created yet are left out (and not created)
+	 * @return
+	 */
+	public static LinkedList<CmdLnValue> createFlatList(CmdLnItem item, boolean withSupplied) {
 		LinkedList<CmdLnValue> items = new LinkedList<>();
 
 		if (item instanceof CommandOP) {
@@ -208,7 +248,7 @@ public class CommandOPTools {
 			items.add((CmdLnValue)item);
 		}
 
-		return createFlatList(items);
+		return createFlatList(items, withSupplied);
 	}
 
 	/**
@@ -0,0 +1,324 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A list of values which stores the characters of all the values in one
+ * growing char array, with the end position of each value in an int array.
+ * A value costs its characters and one int, instead of a {@link String} and
+ * a list entry. A {@link String} is only created when a value is read.<br />
+ * <br />
+ * Values are added at the end, they can be replaced and the list can be
+ * cleared. Null values are not supported. To find values, a hash table of the value
+ * positions is created once the list is too long to be searched, so that
+ * the duplicate checks do not need to create strings either.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class CompactValueList extends AbstractList<String> implements RandomAccess {
+
+	/** The number of values up to which the list is searched without hash table */
+	private static final int HASH_THRESHOLD = 8;
+
+	private char[] chars = new char[64];
+	private int length = 0;
+
+	/** The position after the last character of each value */
+	private int[] ends = new int[16];
+	private int size = 0;
+
+	/**
+	 * The value positions + 1 by the hash of the value, with linear probing.
+	 * 0 marks a free slot.
+	 */
+	private int[] hashTable = null;
+
+
+	@Override
+	public boolean add(String value) {
+		int valueLength = value.length();
+
+		if (length + valueLength > chars.length) {
+			chars = Arrays.copyOf(chars, Math.max(chars.length + (chars.length >> 1), length + valueLength));
+		}
+
+		if (size == ends.length) {
+			ends = Arrays.copyOf(ends, size + (size >> 1));
+		}
+
+		value.getChars(0, valueLength, chars, length);
+		length += valueLength;
+		ends[size] = length;
+		size++;
+		modCount++;
+
+		if (hashTable != null) {
+			if (size * 2 > hashTable.length) {
+				createHashTable();
+			} else {
+				insert(size - 1, value.hashCode());
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		int start = getStart(index);
+		return new String(chars, start, ends[index] - start);
+	}
+
+	/**
+	 * Replaces the value at the given index. The characters of the values
+	 * after it are moved if the new value has another length.
+	 */
+	@Override
+	public String set(int index, String value) {
+		String old = get(index);
+
+		if (hashTable != null) {
+			remove(index, old.hashCode());
+		}
+
+		int start = getStart(index);
+		int valueLength = value.length();
+		int diff = valueLength - (ends[index] - start);
+
+		if (diff != 0) {
+			if (length + diff > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(chars.length + (chars.length >> 1), length + diff));
+			}
+
+			System.arraycopy(chars, ends[index], chars, ends[index] + diff, length - ends[index]);
+			length += diff;
+
+			for (int i = index; i < size; i++) {
+				ends[i] += diff;
+			}
+		}
+
+		value.getChars(0, valueLength, chars, start);
+
+		if (hashTable != null) {
+			insert(index, value.hashCode());
+		}
+
+		return old;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the values. The arrays are kept to be filled again.
+	 */
+	@Override
+	public void clear() {
+		length = 0;
+		size = 0;
+		hashTable = null;
+		modCount++;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!(o instanceof String)) {
+			return -1;
+		}
+
+		String value = (String)o;
+
+		if (hashTable == null) {
+			if (size < HASH_THRESHOLD) {
+				for (int i = 0; i < size; i++) {
+					if (equalsValue(i, value)) {
+						return i;
+					}
+				}
+
+				return -1;
+			}
+
+			createHashTable();
+		}
+
+		int mask = hashTable.length - 1;
+		int pos = spread(value.hashCode()) & mask;
+		int entry;
+		int index = -1;
+
+		//A replaced value is inserted again, thus the duplicates are not
+		//in the order of their index and the whole cluster is searched
+		while ((entry = hashTable[pos]) != 0) {
+			if ((index == -1 || entry - 1 < index) && equalsValue(entry - 1, value)) {
+				index = entry - 1;
+			}
+
+			pos = (pos + 1) & mask;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the position of the first character of the value at the given index
+	 *
+	 * @param index
+	 * @return
+	 */
+	private int getStart(int index) {
+		return index == 0 ? 0 : ends[index - 1];
+	}
+
+	/**
+	 * Returns true if the value at the given index has the same characters
+	 * as the given value
+	 *
+	 * @param index
+	 * @param value
+	 * @return
+	 */
+	private boolean equalsValue(int index, String value) {
+		int start = getStart(index);
+
+		if (ends[index] - start != value.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < value.length(); i++) {
+			if (chars[start + i] != value.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the hash of the value at the given index, the same as the
+	 * hash code of the value as {@link String}
+	 *
+	 * @param index
+	 * @return
+	 */
+	private int hashValue(int index) {
+		int h = 0;
+
+		for (int i = getStart(index); i < ends[index]; i++) {
+			h = 31 * h + chars[i];
+		}
+
+		return h;
+	}
+
+	/**
+	 * Creates the hash table for all the values, with at least twice as many
+	 * slots as there are values
+	 *
+	 */
+	private void createHashTable() {
+		int capacity = 16;
+		while (capacity < size * 4) {
+			capacity <<= 1;
+		}
+
+		hashTable = new int[capacity];
+
+		for (int i = 0; i < size; i++) {
+			insert(i, hashValue(i));
+		}
+	}
+
+	/**
+	 * Adds the value at the given index to the hash table. Duplicate values
+	 * are added as well, the search finds the one with the smallest index.
+	 *
+	 * @param index
+	 * @param hash
+	 */
+	private void insert(int index, int hash) {
+		int mask = hashTable.length - 1;
+		int pos = spread(hash) & mask;
+
+		while (hashTable[pos] != 0) {
+			pos = (pos + 1) & mask;
+		}
+
+		hashTable[pos] = index + 1;
+	}
+
+	/**
+	 * Removes the value at the given index from the hash table. The entries
+	 * after it in the same cluster are moved back, so that they are still
+	 * found without gap.
+	 *
+	 * @param index
+	 * @param hash
+	 */
+	private void remove(int index, int hash) {
+		int mask = hashTable.length - 1;
+		int pos = spread(hash) & mask;
+
+		while (hashTable[pos] != index + 1) {
+			pos = (pos + 1) & mask;
+		}
+
+		int free = pos;
+		int entry;
+
+		for (pos = (pos + 1) & mask; (entry = hashTable[pos]) != 0; pos = (pos + 1) & mask) {
+			int home = spread(hashValue(entry - 1)) & mask;
+
+			//Only moved if its home slot is not between the free slot and its slot
+			if (((pos - home) & mask) >= ((pos - free) & mask)) {
+				hashTable[free] = entry;
+				free = pos;
+			}
+		}
+
+		hashTable[free] = 0;
+	}
+
+	/**
+	 * Mixes the higher bits of the hash into the lower bits which are used
+	 * for the table position
+	 *
+	 * @param hash
+	 * @return
+	 */
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.Map;
+
+/**
+ * A compact lookup table for the items of one level of the tree (the children
+ * of an item or the options of a {@link CommandOP}). The names are stored with
+ * their precomputed hashes in an open addressing table with linear probing, so
+ * a lookup needs a single probe in most cases and no map entries are
+ * followed.<br />
+ * <br />
+ * The index is a snapshot of the items at the time it is created, it does not
+ * keep the declaration order (the maps it is created from do). Once created,
+ * the index does not change and can be used by several threads.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class ItemIndex {
+
+	private final int[] hashes;
+	private final String[] names;
+	private final CmdLnItem[] items;
+
+	private final int mask;
+
+	private final boolean folded;
+
+
+	/**
+	 *
+	 * @param items The items to index, with their names as keys
+	 */
+	protected ItemIndex(Map<String, ? extends CmdLnItem> items) {
+		this(items, false);
+	}
+
+	/**
+	 *
+	 * @param items The items to index, with their names as keys
+	 * @param folded Marks the index as index with lower case names
+	 * (see {@link CmdLnItem#foldNames(Map)}). The names are not changed
+	 * by the index.
+	 */
+	protected ItemIndex(Map<String, ? extends CmdLnItem> items, boolean folded) {
+		this.folded = folded;
+
+		//Keep the table at most half full
+		int capacity = 2;
+		while (capacity < items.size() * 2) {
+			capacity <<= 1;
+		}
+
+		hashes = new int[capacity];
+		names = new String[capacity];
+		this.items = new CmdLnItem[capacity];
+		mask = capacity - 1;
+
+		for (Map.Entry<String, ? extends CmdLnItem> entry : items.entrySet()) {
+			String name = entry.getKey();
+			int hash = name.hashCode();
+			int pos = spread(hash) & mask;
+
+			while (names[pos] != null) {
+				pos = (pos + 1) & mask;
+			}
+
+			hashes[pos] = hash;
+			names[pos] = name;
+			this.items[pos] = entry.getValue();
+		}
+	}
+
+	/**
+	 * Returns the item with the given name, or null if there is no such item.
+	 * The entry of an alias points directly at the item it is an alias for,
+	 * thus the canonical item is returned for an alias as well.
+	 *
+	 * @param name
+	 * @return
+	 */
+	protected CmdLnItem get(CharSequence name) {
+		int hash = name.hashCode();
+		int pos = spread(hash) & mask;
+
+		String n;
+		while ((n = names[pos]) != null) {
+			if (hashes[pos] == hash && n.contentEquals(name)) {
+				return items[pos];
+			}
+
+			pos = (pos + 1) & mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns true if the index has been created with lower case names
+	 *
+	 * @return
+	 */
+	protected boolean isFolded() {
+		return folded;
+	}
+
+	/**
+	 * Mixes the higher bits of the hash into the lower bits which are used
+	 * for the table position
+	 *
+	 * @param hash
+	 * @return
+	 */
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -38,14 +38,37 @@ public class PreParsedChain extends PreParsedItem {
 	 */
 	public PreParsedChain(String arg, PreParsedChain parent) {
 		super(arg);
+		
+		setParent(parent);
+	}
+	
+	/**
+	 * Creates a new chain piece with the already scanned parts of an argument 
+	 * and sets it's parent chain.
+	 * 
+	 * @param kind One of the kinds of the {@link ArgumentScanner}
+	 * @param name
+	 * @param value
+	 * @param parent
+	 */
+	protected PreParsedChain(int kind, String name, String value, PreParsedChain parent) {
+		super(kind, name, value);
+		
+		setParent(parent);
+	}
+	
+	/**
+	 * Sets the parent chain and adds this chain as a child to the given parent
+	 * 
+	 * @param parent
+	 */
+	private void setParent(PreParsedChain parent) {
 		this.parent = parent;
 		
 		if (parent != null) {
 			parent.setNext(this);
 			chainPos = parent.getChainPos() + 1;
 		}
-		
-		
 	}
 	
 	/**
@@ -16,6 +16,9 @@
  */
 package ch.thn.app.commandop;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Thomas Naeff (github.com/thnaeff)
  *
@@ -29,6 +32,8 @@ public class PreParsedItem {
 	
 	private String name = null;
 	private String value = null;
+
+	private List<String> suggestions = Collections.emptyList();
 	
 	/**
 	 * 
@@ -36,26 +41,41 @@ public class PreParsedItem {
 	 * @param arg
 	 */
 	public PreParsedItem(String arg) {
+		ArgumentScanner scanner = new ArgumentScanner();
+		scanner.scan(arg);
 		
-		if (arg.startsWith(CommandOPTools.OPTIONSPREFIX_LONG)) {
-			isOption = true;
-			
-			name = CommandOPTools.getOption(arg);
-			value = CommandOPTools.getOptionValue(arg);
-		} else if (arg.startsWith(CommandOPTools.OPTIONSPREFIX_SHORT)) {
-			isShortOption = true;
-			
-			name = CommandOPTools.getOption(arg);
-			value = CommandOPTools.getOptionValue(arg);
-		} else {
-			isParameter = true;
-			
-			name = CommandOPTools.getParameter(arg);
-			value = CommandOPTools.getParameterValue(arg);
-		}
+		setKind(scanner.getKind());
+		
+		name = scanner.getName();
+		value = scanner.getValue();
 		
 	}
 	
+	/**
+	 * 
+	 * 
+	 * @param kind One of the kinds of the {@link ArgumentScanner}
+	 * @param name
+	 * @param value
+	 */
+	protected PreParsedItem(int kind, String name, String value) {
+		setKind(kind);
+		
+		this.name = name;
+		this.value = value;
+	}
+	
+	/**
+	 * Sets the flags for the given kind
+	 * 
+	 * @param kind One of the kinds of the {@link ArgumentScanner}
+	 */
+	private void setKind(int kind) {
+		isOption = (kind == ArgumentScanner.OPTION);
+		isShortOption = (kind == ArgumentScanner.SHORTOPTION);
+		isParameter = (kind == ArgumentScanner.PARAMETER);
+	}
+	
 	/**
 	 * 
 	 * 
@@ -110,6 +130,28 @@ public class PreParsedItem {
 		return value;
 	}
 	
+	/**
+	 * Sets the names of the defined items which are similar to the name of
+	 * this item, if this item is an unknown argument
+	 * 
+	 * @param suggestions
+	 */
+	protected void setSuggestions(List<String> suggestions) {
+		this.suggestions = suggestions;
+	}
+	
+	/**
+	 * If this item is an unknown argument, the returned list contains the names
+	 * of the defined items which are similar to the name of this item ("did
+	 * you mean ..."), the most similar first. The list is empty if there
+	 * are no similar names.
+	 * 
+	 * @return
+	 */
+	public List<String> getSuggestions() {
+		return suggestions;
+	}
+	
 	/**
 	 * Returns a string which describes the type:
 	 * - option
@@ -130,6 +172,28 @@ public class PreParsedItem {
 		return null;
 	}
 	
+	/**
+	 * Returns a string which describes the given kind:
+	 * - option
+	 * - short option
+	 * - parameter
+	 * 
+	 * @param kind One of the kinds of the {@link ArgumentScanner}
+	 * @return
+	 */
+	protected static String getTypeDescString(int kind) {
+		switch (kind) {
+		case ArgumentScanner.OPTION:
+			return CmdLnItem.OPTION_DESC;
+		case ArgumentScanner.SHORTOPTION:
+			return CmdLnItem.SHORTOPTION_DESC;
+		case ArgumentScanner.PARAMETER:
+			return CmdLnItem.PARAMETER_DESC;
+		default:
+			return null;
+		}
+	}
+	
 	@Override
 	public String toString() {
 		return "[" + name + "=>" + value + "]";
@@ -0,0 +1,299 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.Arrays;
+
+/**
+ * The pre-parsed command line arguments, stored as tokens in parallel arrays
+ * (kind, name, value and the position of the argument the token comes from).
+ * The tokens are stored in the order in which they are given on the command line,
+ * combined short options are split up into one token per option.<br />
+ * <br />
+ * Names and values are stored as {@link CharSequence}. They are either strings
+ * or {@link ArgumentSlice}s which point into the original arguments. The
+ * methods which return a {@link String} create the string from a slice.<br />
+ * <br />
+ * A {@link PreParsedChain} view of the tokens is only created when it is
+ * requested with {@link #getChain()}.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class PreParsedTokens {
+
+	private int[] kinds = null;
+	private CharSequence[] names = null;
+	private CharSequence[] values = null;
+	private int[] argPos = null;
+
+	/** The names used for the lookup if they are not the same as the names (only
+	 * created when the first one is set) */
+	private CharSequence[] keys = null;
+
+	private int size = 0;
+
+	private PreParsedChain chainHead = null;
+
+
+	/**
+	 *
+	 * @param capacity The initial number of tokens which can be stored
+	 */
+	protected PreParsedTokens(int capacity) {
+		if (capacity < 4) {
+			capacity = 4;
+		}
+
+		kinds = new int[capacity];
+		names = new CharSequence[capacity];
+		values = new CharSequence[capacity];
+		argPos = new int[capacity];
+	}
+
+	/**
+	 * Adds a new token
+	 *
+	 * @param kind One of the kinds of the {@link ArgumentScanner}
+	 * @param name
+	 * @param value
+	 * @param argPos The position of the argument in the argument list
+	 */
+	protected void add(int kind, CharSequence name, CharSequence value, int argPos) {
+		if (size == kinds.length) {
+			int capacity = size * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			names = Arrays.copyOf(names, capacity);
+			values = Arrays.copyOf(values, capacity);
+			this.argPos = Arrays.copyOf(this.argPos, capacity);
+
+			if (keys != null) {
+				keys = Arrays.copyOf(keys, capacity);
+			}
+		}
+
+		kinds[size] = kind;
+		names[size] = name;
+		values[size] = value;
+		this.argPos[size] = argPos;
+
+		size++;
+	}
+
+	/**
+	 * Replaces the name of the token with the given name, which has to have
+	 * the same characters
+	 *
+	 * @param index
+	 * @param name
+	 */
+	protected void setName(int index, CharSequence name) {
+		names[index] = name;
+	}
+
+	/**
+	 * Sets the value of the last token
+	 *
+	 * @param value
+	 */
+	protected void setLastValue(CharSequence value) {
+		values[size - 1] = value;
+	}
+
+	/**
+	 * Sets the name which is used to look up the item of the last token, if it
+	 * is not the same as the name (like a lower case name)
+	 *
+	 * @param key
+	 */
+	protected void setLastKey(CharSequence key) {
+		if (keys == null) {
+			keys = new CharSequence[names.length];
+		}
+
+		keys[size - 1] = key;
+	}
+
+	/**
+	 * Returns the number of tokens
+	 *
+	 * @return
+	 */
+	protected int size() {
+		return size;
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected int getKind(int index) {
+		return kinds[index];
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected boolean isOption(int index) {
+		return kinds[index] == ArgumentScanner.OPTION;
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected boolean isShortOption(int index) {
+		return kinds[index] == ArgumentScanner.SHORTOPTION;
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected boolean isParameter(int index) {
+		return kinds[index] == ArgumentScanner.PARAMETER;
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected String getName(int index) {
+		return names[index].toString();
+	}
+
+	/**
+	 * Returns the name of the token without creating a string from a slice
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected CharSequence getNameSequence(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the name which is used to look up the item of the token. This
+	 * is the name itself, unless another key has been set.
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected CharSequence getKeySequence(int index) {
+		if (keys != null && keys[index] != null) {
+			return keys[index];
+		}
+
+		return names[index];
+	}
+
+	/**
+	 *
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected String getValue(int index) {
+		CharSequence value = values[index];
+		return value == null ? null : value.toString();
+	}
+
+	/**
+	 * Returns the value of the token without creating a string from a slice
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected CharSequence getValueSequence(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns true if the token has been given with a value
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected boolean hasValue(int index) {
+		return values[index] != null;
+	}
+
+	/**
+	 * Returns the position of the argument in the argument list which
+	 * contains the token
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected int getArgPos(int index) {
+		return argPos[index];
+	}
+
+	/**
+	 * Returns a string which describes the type of the token
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected String getTypeDescString(int index) {
+		return PreParsedItem.getTypeDescString(kinds[index]);
+	}
+
+	/**
+	 * Creates a new {@link PreParsedItem} for the token
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected PreParsedItem createItem(int index) {
+		return new PreParsedItem(kinds[index], getName(index), getValue(index));
+	}
+
+	/**
+	 * Returns the tokens as chain of {@link PreParsedChain} objects. The chain
+	 * is created with the first call of this method.
+	 *
+	 * @return The first object of the chain, or null if there are no tokens
+	 */
+	protected synchronized PreParsedChain getChain() {
+		if (chainHead == null && size > 0) {
+			PreParsedChain lastChain = null;
+
+			for (int i = 0; i < size; i++) {
+				lastChain = new PreParsedChain(kinds[i], getName(i), getValue(i), lastChain);
+
+				if (chainHead == null) {
+					chainHead = lastChain;
+				}
+			}
+		}
+
+		return chainHead;
+	}
+
+}
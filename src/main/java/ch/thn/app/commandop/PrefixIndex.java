@@ -0,0 +1,204 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of item names, sorted by name, to find items by an abbreviation
+ * of their name. All the names which start with the same prefix are next to
+ * each other in the sorted array, thus the range of the matching names is
+ * found with two binary searches. Whether the range holds the names of one
+ * item only is decided by the runs of names of the same item, which are
+ * precomputed.<br />
+ * <br />
+ * The index is a snapshot of the items at the time it is created. Once created,
+ * the index does not change and can be used by several threads.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class PrefixIndex {
+
+	private final String[] names;
+	private final CmdLnItem[] items;
+	/** The position after the run of names of the same item, for each position */
+	private final int[] runEnds;
+
+
+	/**
+	 *
+	 * @param items The items to index, with their names as keys
+	 */
+	protected PrefixIndex(Map<String, ? extends CmdLnItem> items) {
+		names = items.keySet().toArray(new String[items.size()]);
+		Arrays.sort(names);
+
+		this.items = new CmdLnItem[names.length];
+
+		for (int i = 0; i < names.length; i++) {
+			this.items[i] = items.get(names[i]);
+		}
+
+		runEnds = new int[names.length];
+
+		for (int i = names.length - 1; i >= 0; i--) {
+			if (i + 1 < names.length && this.items[i + 1] == this.items[i]) {
+				runEnds[i] = runEnds[i + 1];
+			} else {
+				runEnds[i] = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the item whose name starts with the given prefix, if there is
+	 * exactly one such item. Several names of the same item (its name and
+	 * aliases) count as one item.
+	 *
+	 * @param prefix
+	 * @return The item, or null if no item or more than one item matches
+	 */
+	protected CmdLnItem get(CharSequence prefix) {
+		int first = getFirst(prefix);
+		int end = getEnd(prefix, first);
+
+		if (first == end || runEnds[first] < end) {
+			//No match, or ambiguous
+			return null;
+		}
+
+		return items[first];
+	}
+
+	/**
+	 * Returns all the names which start with the given prefix, in sorted order
+	 *
+	 * @param prefix
+	 * @return
+	 */
+	protected List<String> getNames(CharSequence prefix) {
+		List<String> matches = new LinkedList<String>();
+
+		int first = getFirst(prefix);
+		int end = getEnd(prefix, first);
+
+		for (int pos = first; pos < end; pos++) {
+			matches.add(names[pos]);
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Returns the position of the first name which is not smaller than the
+	 * given prefix
+	 *
+	 * @param prefix
+	 * @return
+	 */
+	private int getFirst(CharSequence prefix) {
+		int low = 0;
+		int high = names.length;
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (compare(names[mid], prefix) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Returns the position after the last name which starts with the given
+	 * prefix. The names before the given position are not searched.
+	 *
+	 * @param prefix
+	 * @param first The position of the first name which is not smaller than
+	 * the prefix
+	 * @return
+	 */
+	private int getEnd(CharSequence prefix, int first) {
+		int low = first;
+		int high = names.length;
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (startsWith(names[mid], prefix)) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Compares the name with the prefix, like {@link String#compareTo(String)}
+	 *
+	 * @param name
+	 * @param prefix
+	 * @return
+	 */
+	private static int compare(String name, CharSequence prefix) {
+		int length = Math.min(name.length(), prefix.length());
+
+		for (int i = 0; i < length; i++) {
+			int diff = name.charAt(i) - prefix.charAt(i);
+
+			if (diff != 0) {
+				return diff;
+			}
+		}
+
+		return name.length() - prefix.length();
+	}
+
+	/**
+	 *
+	 *
+	 * @param name
+	 * @param prefix
+	 * @return
+	 */
+	private static boolean startsWith(String name, CharSequence prefix) {
+		int length = prefix.length();
+
+		if (name.length() < length) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A pool of strings, so that names and values which are given over and over
+ * again are stored as one string instead of a new copy for each parsing.
+ * The pool has a fixed number of slots and each string has exactly one slot
+ * (given by its hash), thus a string replaces the string in its slot and the
+ * pool never grows. The strings are only weakly referenced: strings which are
+ * not used anywhere else anymore are left to the garbage collector.<br />
+ * <br />
+ * The pool can be used by several threads without locking. Two threads which
+ * set the same slot at the same time only cause a string to be missed
+ * the next time.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class StringPool {
+
+	private final AtomicReferenceArray<WeakReference<String>> slots;
+	private final int mask;
+
+
+	/**
+	 *
+	 * @param size The number of slots, rounded up to a power of two
+	 */
+	protected StringPool(int size) {
+		int capacity = 16;
+		while (capacity < size) {
+			capacity <<= 1;
+		}
+
+		slots = new AtomicReferenceArray<WeakReference<String>>(capacity);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the pooled string with the characters of the given sequence.
+	 * If there is none, the sequence is pooled as string and returned. For
+	 * an {@link ArgumentSlice}, no string is created if the pool already
+	 * has one.
+	 *
+	 * @param value
+	 * @return
+	 */
+	protected String intern(CharSequence value) {
+		int hash = value.hashCode();
+		int pos = spread(hash) & mask;
+
+		WeakReference<String> ref = slots.get(pos);
+		String pooled = (ref == null ? null : ref.get());
+
+		if (pooled != null && pooled.hashCode() == hash && pooled.contentEquals(value)) {
+			return pooled;
+		}
+
+		String string = value.toString();
+		slots.set(pos, new WeakReference<String>(string));
+
+		return string;
+	}
+
+	/**
+	 * Mixes the higher bits of the hash into the lower bits which are used
+	 * for the slot position
+	 *
+	 * @param hash
+	 * @return
+	 */
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,395 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An index of item names to find the names which are similar to an unknown
+ * name, for "did you mean" suggestions. The names are stored in a BK-tree over
+ * the edit distance (Levenshtein distance): each child of a node is stored at
+ * the distance it has to the node, thus a search for names within a maximum
+ * distance only needs to follow the children whose distance lies within that
+ * range.<br />
+ * <br />
+ * A search visits the nodes which can be the closest first and stops after
+ * {@link #MAX_VISITED_NODES} nodes, which bounds its cost for any number of
+ * names. The index does not change once it has been created and can be used
+ * by several threads.<br />
+ * <br />
+ * If the case is ignored, the tree holds the lower case names and the
+ * suggestions are returned with the names as they are defined.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class SuggestionIndex {
+
+	/** The maximum number of names which are returned */
+	public static final int MAX_SUGGESTIONS = 3;
+
+	/** The maximum number of tree nodes which are looked at in one search */
+	public static final int MAX_VISITED_NODES = 1000;
+
+	private Node rootNode = null;
+
+	/** The defined names by their lower case names, or null if the case is not ignored */
+	private HashMap<String, String> definedNames = null;
+
+
+	/**
+	 *
+	 * @param names
+	 */
+	protected SuggestionIndex(Collection<String> names) {
+		this(names, false);
+	}
+
+	/**
+	 *
+	 * @param names
+	 * @param ignoreCase If set to true, the names are compared in lower case
+	 * (see {@link ArgumentScanner#foldCase(String)}). The unknown names then
+	 * have to be given in lower case as well.
+	 */
+	protected SuggestionIndex(Collection<String> names, boolean ignoreCase) {
+		if (ignoreCase) {
+			definedNames = new HashMap<String, String>();
+		}
+
+		for (String name : names) {
+			if (ignoreCase) {
+				String folded = ArgumentScanner.foldCase(name);
+
+				//The first name is kept, like for the lookup
+				if (definedNames.containsKey(folded)) {
+					continue;
+				}
+
+				definedNames.put(folded, name);
+				name = folded;
+			}
+
+			add(name);
+		}
+	}
+
+	/**
+	 * Adds the given name to the tree
+	 *
+	 * @param name
+	 */
+	private void add(String name) {
+		if (rootNode == null) {
+			rootNode = new Node(name);
+			return;
+		}
+
+		Node node = rootNode;
+		int[] previous = new int[name.length() + 1];
+		int[] current = new int[name.length() + 1];
+
+		while (true) {
+			int distance = getDistance(node.name, name, Integer.MAX_VALUE, previous, current);
+
+			if (distance == 0) {
+				//Already in the tree
+				return;
+			}
+
+			Node child = node.getChild(distance);
+
+			if (child == null) {
+				node.setChild(distance, new Node(name));
+				return;
+			}
+
+			node = child;
+		}
+	}
+
+	/**
+	 * Returns the names which are the most similar to the given name. Only names
+	 * within a small edit distance (depending on the length of the given name)
+	 * are returned, the closest first.
+	 *
+	 * @param name
+	 * @return The similar names, or an empty list if there are none
+	 */
+	protected List<String> getSuggestions(CharSequence name) {
+		if (rootNode == null || name.length() == 0) {
+			return Collections.emptyList();
+		}
+
+		String unknown = name.toString();
+		int maxDistance = (unknown.length() < 4 ? 1 : 2);
+
+		//Candidates, stored per distance
+		List<List<String>> found = new ArrayList<List<String>>();
+		for (int i = 0; i <= maxDistance; i++) {
+			found.add(new ArrayList<String>());
+		}
+
+		//The nodes to visit, the ones which can be the closest first
+		PriorityQueue<Candidate> pending = new PriorityQueue<Candidate>();
+		pending.add(new Candidate(rootNode, 0));
+
+		//The rows of the distance calculation, used for all the nodes
+		int[] previous = new int[unknown.length() + 1];
+		int[] current = new int[unknown.length() + 1];
+
+		int visited = 0;
+
+		while (!pending.isEmpty() && visited < MAX_VISITED_NODES) {
+			Candidate candidate = pending.poll();
+
+			if (candidate.minDistance > maxDistance) {
+				//All remaining nodes are further away
+				break;
+			}
+
+			Node node = candidate.node;
+			visited++;
+
+			//Beyond this distance, neither the node nor any of its children can
+			//be within the maximum distance
+			int limit = maxDistance + node.getMaxChildDistance();
+			int distance = getDistance(node.name, unknown, limit, previous, current);
+
+			if (distance > limit) {
+				continue;
+			}
+
+			if (distance <= maxDistance) {
+				found.get(distance).add(node.name);
+
+				//Once there are enough names within a smaller distance, the
+				//names further away are not needed anymore
+				int count = 0;
+				for (int d = 0; d < maxDistance; d++) {
+					count += found.get(d).size();
+
+					if (count >= MAX_SUGGESTIONS) {
+						maxDistance = d;
+						break;
+					}
+				}
+			}
+
+			//Only the children within [distance - max, distance + max] can
+			//be within the maximum distance. The names below a child with the
+			//distance d have at least the distance |distance - d| to the unknown name.
+			int from = Math.max(1, distance - maxDistance);
+			int to = distance + maxDistance;
+
+			for (int d = from; d <= to; d++) {
+				Node child = node.getChild(d);
+
+				if (child != null) {
+					pending.add(new Candidate(child, Math.abs(distance - d)));
+				}
+			}
+		}
+
+		List<String> suggestions = new ArrayList<String>(MAX_SUGGESTIONS);
+
+		for (int d = 0; d <= maxDistance; d++) {
+			List<String> names = found.get(d);
+			Collections.sort(names);
+
+			for (String n : names) {
+				if (suggestions.size() == MAX_SUGGESTIONS) {
+					return suggestions;
+				}
+
+				suggestions.add(definedNames == null ? n : definedNames.get(n));
+			}
+		}
+
+		return suggestions;
+	}
+
+	/**
+	 * Calculates the Levenshtein distance between the two strings
+	 *
+	 * @param s1
+	 * @param s2
+	 * @return
+	 */
+	protected static int getDistance(String s1, String s2) {
+		return getDistance(s1, s2, Integer.MAX_VALUE, new int[s2.length() + 1], new int[s2.length() + 1]);
+	}
+
+	/**
+	 * Calculates the Levenshtein distance between the two strings, as long as
+	 * it is not larger than the given limit. Only the cells within the limit
+	 * of the diagonal are calculated, and the calculation stops as soon as a
+	 * row has no cell within the limit.
+	 *
+	 * @param s1
+	 * @param s2
+	 * @param limit
+	 * @param previous A buffer for a row, at least as long as s2 plus one
+	 * @param current A buffer for a row, at least as long as s2 plus one
+	 * @return The distance, or a value larger than the limit if the distance
+	 * is larger than the limit
+	 */
+	protected static int getDistance(String s1, String s2, int limit,
+			int[] previous, int[] current) {
+		int length1 = s1.length();
+		int length2 = s2.length();
+
+		if (Math.abs(length1 - length2) > limit) {
+			return limit + 1;
+		}
+
+		//The distance is never larger than the longer string
+		limit = Math.min(limit, Math.max(length1, length2));
+		int outside = limit + 1;
+
+		for (int j = 0; j <= length2; j++) {
+			previous[j] = (j <= limit ? j : outside);
+		}
+
+		for (int i = 1; i <= length1; i++) {
+			int from = Math.max(1, i - limit);
+			int to = Math.min(length2, i + limit);
+
+			current[0] = (i <= limit ? i : outside);
+			current[from - 1] = (from == 1 ? current[0] : outside);
+
+			int rowMin = current[from - 1];
+			char c = s1.charAt(i - 1);
+
+			for (int j = from; j <= to; j++) {
+				int cost = (c == s2.charAt(j - 1) ? 0 : 1);
+				int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				current[j] = Math.min(value, outside);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+
+			if (to < length2) {
+				current[to + 1] = outside;
+			}
+
+			if (rowMin > limit) {
+				return outside;
+			}
+
+			int[] tmp = previous;
+			previous = current;
+			current = tmp;
+		}
+
+		return previous[length2];
+	}
+
+
+	/**
+	 * A node which is still to be visited in a search, with the smallest
+	 * distance the names below the node can have to the searched name
+	 *
+	 */
+	private static class Candidate implements Comparable<Candidate> {
+
+		private final Node node;
+		private final int minDistance;
+
+		/**
+		 *
+		 * @param node
+		 * @param minDistance
+		 */
+		private Candidate(Node node, int minDistance) {
+			this.node = node;
+			this.minDistance = minDistance;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			return minDistance - other.minDistance;
+		}
+
+	}
+
+	/**
+	 * A node of the BK-tree. The children are stored by their distance
+	 * to this node.
+	 *
+	 */
+	private static class Node {
+
+		private final String name;
+		private Node[] children = null;
+
+		/**
+		 *
+		 * @param name
+		 */
+		private Node(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns a distance which is not smaller than the largest distance
+		 * of the children
+		 *
+		 * @return
+		 */
+		private int getMaxChildDistance() {
+			return (children == null ? 0 : children.length - 1);
+		}
+
+		/**
+		 *
+		 *
+		 * @param distance
+		 * @return
+		 */
+		private Node getChild(int distance) {
+			if (children == null || distance >= children.length) {
+				return null;
+			}
+
+			return children[distance];
+		}
+
+		/**
+		 *
+		 *
+		 * @param distance
+		 * @param child
+		 */
+		private void setChild(int distance, Node child) {
+			if (children == null) {
+				children = new Node[Math.max(4, distance + 1)];
+			} else if (distance >= children.length) {
+				children = Arrays.copyOf(children, Math.max(children.length * 2, distance + 1));
+			}
+
+			children[distance] = child;
+		}
+
+	}
+
+}
@@ -0,0 +1,259 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package ch.thn.app.commandop;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Resolves the references (<code>${name}</code>) in the values of one parsing
+ * result, after all the arguments have been parsed. A name is looked up as item
+ * first (an option or non-option-parameter, with the names of its children
+ * separated by dots like <code>${option.child}</code>), then as system property
+ * and then as environment variable. <code>$${</code> stands for a literal
+ * <code>${</code>.<br />
+ * <br />
+ * Only the items whose values contain references are looked at (see
+ * {@link CommandOPResult#addUninterpolatedItem(CmdLnItem)}). The items which
+ * are referenced by such an item are resolved first, each item only once, and
+ * a reference back to an item which is being resolved is reported as cycle.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+class ValueInterpolator {
+
+	private static final int IN_PROGRESS = 0;
+	private static final int DONE = 1;
+	private static final int FAILED = 2;
+
+	private final CommandOP cmdop;
+	private final CommandOPResult result;
+
+	/** The items which have been looked at, with one of the states above */
+	private final HashMap<CmdLnItem, Integer> resolved = new HashMap<CmdLnItem, Integer>();
+
+	/** The items which are being resolved, for the message of a cycle */
+	private final LinkedList<CmdLnItem> path = new LinkedList<CmdLnItem>();
+
+
+	/**
+	 *
+	 * @param cmdop
+	 * @param result
+	 */
+	protected ValueInterpolator(CommandOP cmdop, CommandOPResult result) {
+		this.cmdop = cmdop;
+		this.result = result;
+	}
+
+	/**
+	 * Returns true if the given value contains a reference
+	 *
+	 * @param value
+	 * @return
+	 */
+	protected static boolean hasReference(String value) {
+		return value.indexOf("${") >= 0;
+	}
+
+	/**
+	 * Resolves the references in the values of all the items of the result
+	 * which have values with references
+	 *
+	 * @throws CommandOPError
+	 */
+	protected void interpolate() throws CommandOPError {
+		for (CmdLnItem item : result.getUninterpolatedItems()) {
+			resolve(item);
+		}
+	}
+
+	/**
+	 * Resolves the references in the values of the given item, if it has
+	 * values with references and has not been resolved yet
+	 *
+	 * @param item
+	 * @return true if the values of the item are resolved, false if resolving
+	 * them failed (the error has been reported already)
+	 * @throws CommandOPError
+	 */
+	private boolean resolve(CmdLnItem item) throws CommandOPError {
+		Integer state = resolved.get(item);
+
+		if (state != null) {
+			if (state == IN_PROGRESS) {
+				StringBuilder cycle = new StringBuilder();
+
+				for (CmdLnItem i : path.subList(path.indexOf(item), path.size())) {
+					cycle.append(i.getName()).append(" -> ");
+				}
+
+				result.error("Cyclic reference in the value of item '" + item.getName() + "': " + cycle + item.getName());
+				return false;
+			}
+
+			return state == DONE;
+		}
+
+		if (!result.isUninterpolated(item)) {
+			//A value without references
+			return true;
+		}
+
+		resolved.put(item, IN_PROGRESS);
+		path.add(item);
+
+		CmdLnItemState itemState = result.getState(item);
+		boolean ok = true;
+
+		for (int pos = 0; pos < itemState.values.size(); pos++) {
+			String value = itemState.values.get(pos);
+
+			if (value == null || !hasReference(value)) {
+				continue;
+			}
+
+			String interpolated = substitute(item, value);
+
+			if (interpolated == null) {
+				ok = false;
+				continue;
+			}
+
+			String errormsg = item.replaceValue(itemState, pos, interpolated);
+
+			if (errormsg != null) {
+				result.error(errormsg);
+				ok = false;
+			}
+		}
+
+		path.removeLast();
+		resolved.put(item, ok ? DONE : FAILED);
+
+		return ok;
+	}
+
+	/**
+	 * Replaces the references in the given value of the given item
+	 *
+	 * @param item
+	 * @param value
+	 * @return The value with the references replaced, or null if a reference
+	 * could not be resolved
+	 * @throws CommandOPError
+	 */
+	private String substitute(CmdLnItem item, String value) throws CommandOPError {
+		StringBuilder sb = new StringBuilder(value.length());
+		int pos = 0;
+		int start;
+
+		while ((start = value.indexOf("${", pos)) >= 0) {
+			if (start > 0 && value.charAt(start - 1) == '$') {
+				//Escaped
+				sb.append(value, pos, start - 1).append("${");
+				pos = start + 2;
+				continue;
+			}
+
+			int end = value.indexOf('}', start + 2);
+
+			if (end < 0) {
+				//Not closed, not a reference
+				break;
+			}
+
+			String replacement = lookup(item, value.substring(start + 2, end));
+
+			if (replacement == null) {
+				return null;
+			}
+
+			sb.append(value, pos, start).append(replacement);
+			pos = end + 1;
+		}
+
+		sb.append(value, pos, value.length());
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the value of the referenced item, system property or
+	 * environment variable
+	 *
+	 * @param item The item with the reference
+	 * @param name
+	 * @return The value, or null if the reference could not be resolved
+	 * @throws CommandOPError
+	 */
+	private String lookup(CmdLnItem item, String name) throws CommandOPError {
+		CmdLnItem referenced = findItem(name);
+
+		if (referenced != null) {
+			if (!resolve(referenced)) {
+				return null;
+			}
+
+			String value = result.getValue(referenced);
+
+			if (value == null) {
+				result.error("The item '" + name + "' which is referenced in the value of item '" + item.getName() + "' has no value.");
+			}
+
+			return value;
+		}
+
+		String value = System.getProperty(name);
+
+		if (value == null) {
+			value = System.getenv(name);
+		}
+
+		if (value == null) {
+			result.error("Unknown reference '${" + name + "}' in the value of item '" + item.getName() + "'.");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns the item with the given name, which is the name of an option
+	 * or non-option-parameter, optionally followed by the names of its children
+	 * separated by dots
+	 *
+	 * @param name
+	 * @return The item, or null if there is no such item
+	 */
+	private CmdLnItem findItem(String name) {
+		String[] names = name.split("\\.");
+
+		CmdLnItem item = cmdop.getOptionEntry(names[0]);
+
+		if (item == null) {
+			item = cmdop.findChild(names[0]);
+		}
+
+		for (int i = 1; i < names.length && item != null; i++) {
+			item = item.findChild(names[i]);
+		}
+
+		return item;
+	}
+
+}
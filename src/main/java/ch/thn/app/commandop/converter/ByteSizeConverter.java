@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+/**
+ * Converts a size like "512MB", "4k" or "1024" into a number of bytes. The
+ * units K, M, G and T (optionally followed by B or iB) are multiples of 1024,
+ * a number without unit or with the unit B is a number of bytes.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class ByteSizeConverter extends CommandOPConverter<Long> {
+
+	private static final String UNITS = "KMGT";
+
+	@Override
+	public Long convert(String value) {
+		int pos = 0;
+
+		while (pos < value.length() && Character.isDigit(value.charAt(pos))) {
+			pos++;
+		}
+
+		if (pos == 0) {
+			throw new IllegalArgumentException("Number expected.");
+		}
+
+		long number = Long.parseLong(value.substring(0, pos));
+		String unit = value.substring(pos).trim().toUpperCase();
+		int shift = 0;
+
+		if (unit.length() > 0 && !unit.equals("B")) {
+			int exponent = UNITS.indexOf(unit.charAt(0));
+			String suffix = unit.substring(1);
+
+			if (exponent == -1 || !(suffix.isEmpty() || suffix.equals("B") || suffix.equals("IB"))) {
+				throw new IllegalArgumentException("Unknown unit '" + value.substring(pos).trim() + "' (B, KB, MB, GB or TB expected).");
+			}
+
+			shift = (exponent + 1) * 10;
+		}
+
+		if (number > (Long.MAX_VALUE >> shift)) {
+			throw new IllegalArgumentException("Size too large.");
+		}
+
+		return number << shift;
+	}
+
+	@Override
+	public String getTypeString() {
+		return "size";
+	}
+
+}
@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+/**
+ * Converts the string value of a command line item into an object of a richer
+ * type. A converter is attached to an item when it is defined (see
+ * {@link ch.thn.app.commandop.CmdLnParameter#setConverter(CommandOPConverter)})
+ * and is called once for each value while parsing. A value which can not be
+ * converted is reported like a value which does not pass validation, and the
+ * converted object is kept with the value.<br />
+ * <br />
+ * The same converter might be used by many threads at the same time when
+ * parsing with a compiled schema, thus a converter should not keep any state
+ * of a conversion.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ * @param <T> The type of the converted values
+ */
+public abstract class CommandOPConverter<T> {
+
+	/**
+	 * Converts the given value
+	 *
+	 * @param value The value as it is given on the command line (or as default value)
+	 * @return The converted value
+	 * @throws IllegalArgumentException if the value can not be converted. The
+	 * message of the exception describes the error.
+	 */
+	public abstract T convert(String value);
+
+	/**
+	 * Returns the type string which is shown in the help output for items
+	 * with this converter, if they do not have their own type string
+	 *
+	 * @return
+	 */
+	public abstract String getTypeString();
+
+}
@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The registry of the converters which are used for the value types given to
+ * {@link ch.thn.app.commandop.CmdLnParameter#setConverter(Class)}. Converters
+ * for {@link Path} and {@link InetSocketAddress} are registered by default,
+ * converters for enums are created when they are needed. Durations and byte
+ * sizes are both converted into numbers, thus their converters
+ * ({@link #DURATION}, {@link #BYTE_SIZE}) are not registered by type and are
+ * set directly.<br />
+ * <br />
+ * The registry can be used by several threads.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class CommandOPConverters {
+
+	/** Converts a path (see {@link PathConverter}) */
+	public static final CommandOPConverter<Path> PATH = new PathConverter();
+
+	/** Converts a duration into milliseconds (see {@link DurationConverter}) */
+	public static final CommandOPConverter<Long> DURATION = new DurationConverter();
+
+	/** Converts a size into bytes (see {@link ByteSizeConverter}) */
+	public static final CommandOPConverter<Long> BYTE_SIZE = new ByteSizeConverter();
+
+	/** Converts a host and port (see {@link SocketAddressConverter}) */
+	public static final CommandOPConverter<InetSocketAddress> SOCKET_ADDRESS = new SocketAddressConverter();
+
+	private static final ConcurrentMap<Class<?>, CommandOPConverter<?>> converters = new ConcurrentHashMap<Class<?>, CommandOPConverter<?>>();
+
+	static {
+		converters.put(Path.class, PATH);
+		converters.put(InetSocketAddress.class, SOCKET_ADDRESS);
+	}
+
+
+	/**
+	 * Not instantiable
+	 */
+	private CommandOPConverters() {
+
+	}
+
+	/**
+	 * Registers the converter for the given type. An already registered
+	 * converter for the same type is replaced.
+	 *
+	 * @param type
+	 * @param converter
+	 */
+	public static <T> void register(Class<T> type, CommandOPConverter<? extends T> converter) {
+		converters.put(type, converter);
+	}
+
+	/**
+	 * Returns the converter for the given type. For enums without registered
+	 * converter, an {@link EnumConverter} is registered and returned.
+	 *
+	 * @param type
+	 * @return The converter, or null if there is no converter for the type
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> CommandOPConverter<? extends T> get(Class<T> type) {
+		CommandOPConverter<?> converter = converters.get(type);
+
+		if (converter == null && type.isEnum()) {
+			converter = new EnumConverter(type);
+			CommandOPConverter<?> existing = converters.putIfAbsent(type, converter);
+
+			if (existing != null) {
+				converter = existing;
+			}
+		}
+
+		return (CommandOPConverter<? extends T>)converter;
+	}
+
+}
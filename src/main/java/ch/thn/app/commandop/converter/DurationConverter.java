@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+/**
+ * Converts a duration like "30s", "500ms" or "1h30m" into a number of
+ * milliseconds. A duration is a sequence of numbers, each followed by one of
+ * the units d (days), h (hours), m (minutes), s (seconds) or ms (milliseconds).
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class DurationConverter extends CommandOPConverter<Long> {
+
+	@Override
+	public Long convert(String value) {
+		int length = value.length();
+
+		if (length == 0) {
+			throw new IllegalArgumentException("Empty duration.");
+		}
+
+		long millis = 0;
+		int pos = 0;
+
+		while (pos < length) {
+			int start = pos;
+
+			while (pos < length && Character.isDigit(value.charAt(pos))) {
+				pos++;
+			}
+
+			if (pos == start) {
+				throw new IllegalArgumentException("Number expected at position " + start + ".");
+			}
+
+			long number = Long.parseLong(value.substring(start, pos));
+
+			start = pos;
+
+			while (pos < length && Character.isLetter(value.charAt(pos))) {
+				pos++;
+			}
+
+			long factor = getFactor(value.substring(start, pos));
+
+			if (number > (Long.MAX_VALUE - millis) / factor) {
+				throw new IllegalArgumentException("Duration too long.");
+			}
+
+			millis += number * factor;
+		}
+
+		return millis;
+	}
+
+	/**
+	 * Returns the number of milliseconds of the given unit
+	 *
+	 * @param unit
+	 * @return
+	 */
+	private static long getFactor(String unit) {
+		switch (unit.toLowerCase()) {
+		case "ms":
+			return 1;
+		case "s":
+			return 1000;
+		case "m":
+			return 60 * 1000;
+		case "h":
+			return 60 * 60 * 1000;
+		case "d":
+			return 24 * 60 * 60 * 1000;
+		case "":
+			throw new IllegalArgumentException("Unit (d, h, m, s or ms) missing.");
+		default:
+			throw new IllegalArgumentException("Unknown unit '" + unit + "' (d, h, m, s or ms expected).");
+		}
+	}
+
+	@Override
+	public String getTypeString() {
+		return "duration";
+	}
+
+}
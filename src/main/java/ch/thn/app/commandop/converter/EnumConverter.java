@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+/**
+ * Converts a value into a constant of the given enum, by the name of the
+ * constant (ignoring case)
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ * @param <E>
+ */
+public class EnumConverter<E extends Enum<E>> extends CommandOPConverter<E> {
+
+	private final Class<E> enumType;
+
+
+	/**
+	 *
+	 * @param enumType
+	 */
+	public EnumConverter(Class<E> enumType) {
+		this.enumType = enumType;
+	}
+
+	@Override
+	public E convert(String value) {
+		for (E constant : enumType.getEnumConstants()) {
+			if (constant.name().equalsIgnoreCase(value)) {
+				return constant;
+			}
+		}
+
+		throw new IllegalArgumentException("Not one of " + getTypeString() + ".");
+	}
+
+	@Override
+	public String getTypeString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (E constant : enumType.getEnumConstants()) {
+			if (sb.length() > 0) {
+				sb.append("|");
+			}
+
+			sb.append(constant.name());
+		}
+
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts a value into a {@link Path} of the default file system. The path
+ * only has to be a valid path, the file does not have to exist.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class PathConverter extends CommandOPConverter<Path> {
+
+	@Override
+	public Path convert(String value) {
+		try {
+			return Paths.get(value);
+		} catch (InvalidPathException e) {
+			throw new IllegalArgumentException("Not a valid path (" + e.getReason() + ").", e);
+		}
+	}
+
+	@Override
+	public String getTypeString() {
+		return "path";
+	}
+
+}
@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2013 Thomas Naeff (github.com/thnaeff)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package ch.thn.app.commandop.converter;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Converts a value like "localhost:8080", "10.0.0.1:22" or "[::1]:443" into an
+ * {@link InetSocketAddress}. The host name is not resolved while parsing
+ * (see {@link InetSocketAddress#createUnresolved(String, int)}), it is resolved
+ * when the address is used to connect.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class SocketAddressConverter extends CommandOPConverter<InetSocketAddress> {
+
+	@Override
+	public InetSocketAddress convert(String value) {
+		int separator = value.lastIndexOf(':');
+
+		if (separator <= 0) {
+			throw new IllegalArgumentException("Host and port expected (host:port).");
+		}
+
+		String host = value.substring(0, separator);
+
+		if (host.startsWith("[") && host.endsWith("]")) {
+			host = host.substring(1, host.length() - 1);
+		}
+
+		int port;
+
+		try {
+			port = Integer.parseInt(value.substring(separator + 1));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid port '" + value.substring(separator + 1) + "'.");
+		}
+
+		if (port < 0 || port > 65535) {
+			throw new IllegalArgumentException("Port " + port + " out of range (0-65535).");
+		}
+
+		return InetSocketAddress.createUnresolved(host, port);
+	}
+
+	@Override
+	public String getTypeString() {
+		return "host:port";
+	}
+
+}
@@ -24,7 +24,11 @@ import ch.thn.app.commandop.CmdLnItem;
  */
 public abstract class CommandOPValidator {
 	
-	private String errorMessage = null;
+	/**
+	 * The error message is kept per thread, since the same validator might be 
+	 * used by many threads at the same time when parsing with a compiled schema
+	 */
+	private ThreadLocal<String> errorMessage = new ThreadLocal<String>();
 	
 	/**
 	 * Set an error message to describe the validation error
@@ -32,7 +36,7 @@ public abstract class CommandOPValidator {
 	 * @param errorMessage
 	 */
 	protected void setErrorMessage(String errorMessage) {
-		this.errorMessage = errorMessage;
+		this.errorMessage.set(errorMessage);
 	}
 	
 	/**
@@ -41,11 +45,13 @@ public abstract class CommandOPValidator {
 	 * @return
 	 */
 	public String getErrorMessage() {
-		if (errorMessage == null) {
+		String message = errorMessage.get();
+		
+		if (message == null) {
 			return "";
 		}
 		
-		return errorMessage;
+		return message;
 	}
 	
 	/**
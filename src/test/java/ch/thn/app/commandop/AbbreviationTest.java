@@ -0,0 +1,65 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class AbbreviationTest {
+
+	@Test
+	public void testAbbreviations() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.useAbbreviations(true);
+		cmdop.addOption("verbose", "").addAlias("verbosity").setAsBoolean();
+		cmdop.addOption("version", "").setAsBoolean();
+		cmdop.addOption("verb", "");
+		cmdop.addOption("output", "").addShortAlias('o');
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--verbo --out=file --verb=x".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals("true", result.getValue(schema.getOption("verbose")));
+		assertEquals("file", result.getValue(schema.getOption("output")));
+		assertEquals("x", result.getValue(schema.getOption("verb")));
+		assertFalse(result.isParsed(schema.getOption("version")));
+
+		result = schema.parse("--ver".split(" "));
+
+		assertTrue(result.hasErrors());
+		assertFalse(result.isParsed(schema.getOption("verbose")));
+		assertTrue(result.getUnknownArguments().containsKey("ver"));
+	}
+
+	@Test
+	public void testPrefixIndex() throws Exception {
+		CmdLnItem verbose = CommandOPFactory.newParameter("verbose", "");
+		CmdLnItem version = CommandOPFactory.newParameter("version", "");
+		Map<String, CmdLnItem> items = new LinkedHashMap<String, CmdLnItem>();
+		items.put("verbose", verbose);
+		items.put("verbosity", verbose);
+		items.put("version", version);
+		items.put("a", CommandOPFactory.newParameter("a", ""));
+		items.put("z", CommandOPFactory.newParameter("z", ""));
+
+		PrefixIndex index = new PrefixIndex(items);
+
+		//The names of the same item are one match
+		assertSame(verbose, index.get("verbos"));
+		assertSame(version, index.get("versi"));
+		assertSame(items.get("z"), index.get("z"));
+		assertSame(verbose, index.get("verb"));
+		assertNull(index.get("ver"));
+		assertNull(index.get("x"));
+		assertNull(index.get("zz"));
+		assertNull(index.get(""));
+		assertEquals(Arrays.asList("verbose", "verbosity", "version"), index.getNames("ver"));
+		assertTrue(index.getNames("b").isEmpty());
+		assertNull(new PrefixIndex(new LinkedHashMap<String, CmdLnItem>()).get("a"));
+	}
+
+}
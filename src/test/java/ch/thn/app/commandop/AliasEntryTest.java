@@ -0,0 +1,30 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AliasEntryTest {
+
+	@Test
+	public void testAliasEntries() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption help = cmdop.addOption("help", "");
+		help.addShortAlias('h').addAlias("usage").setAsBoolean();
+		CmdLnParameter target = help.addParameter("topic", "").addAlias("t");
+
+		//The aliases lead directly to the items, they are no items of their own
+		assertSame(help, cmdop.getOption("h"));
+		assertSame(help, cmdop.getOption("usage"));
+		assertSame(target, help.getChild("t"));
+		assertEquals(2, CommandOPTools.createFlatList(cmdop).size());
+
+		CommandOPSchema schema = cmdop.compile();
+		CommandOPResult result = schema.parse("-h t=alias".split(" "));
+
+		assertTrue(result.isParsed(help));
+		assertEquals("alias", result.getValue(target));
+		assertTrue(schema.parse("--usage".split(" ")).isParsed(help));
+	}
+
+}
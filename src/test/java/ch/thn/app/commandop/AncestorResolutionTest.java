@@ -0,0 +1,30 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AncestorResolutionTest {
+
+	@Test
+	public void testAncestorResolution() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption a = cmdop.addOption("a", "");
+		a.addParameter("b", "").addParameter("c", "");
+		a.addParameter("x", "");
+		cmdop.addParameter("r", "");
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--a b c=1 x=2 r=3".split(" "));
+
+		assertEquals("1", result.getValue(schema.getOption("a").getChild("b").getChild("c")));
+		assertEquals("2", result.getValue(schema.getOption("a").getChild("x")));
+		//The parameters of the root are only reachable from top level items
+		assertFalse(result.isParsed(schema.getParameter("r")));
+		assertTrue(result.getUnknownArguments().containsKey("r"));
+
+		result = schema.parse("--a r=3".split(" "));
+		assertEquals("3", result.getValue(schema.getParameter("r")));
+	}
+
+}
@@ -0,0 +1,100 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ArgumentScannerTest {
+
+	@Test
+	public void testScan() throws Exception {
+		ArgumentScanner scanner = new ArgumentScanner();
+
+		scanner.scan("--file=a=b");
+		assertEquals(ArgumentScanner.OPTION, scanner.getKind());
+		assertEquals("file", scanner.getName());
+		assertEquals("a=b", scanner.getValue());
+
+		//Only two prefix characters are taken as prefix
+		scanner.scan("---foo");
+		assertEquals(ArgumentScanner.OPTION, scanner.getKind());
+		assertEquals("-foo", scanner.getName());
+		assertFalse(scanner.hasValue());
+
+		scanner.scan("-ab=val");
+		assertEquals(ArgumentScanner.SHORTOPTION, scanner.getKind());
+		assertEquals("ab", scanner.getName());
+		assertEquals("val", scanner.getValue());
+
+		//An empty value is not the same as no value
+		scanner.scan("name=");
+		assertEquals(ArgumentScanner.PARAMETER, scanner.getKind());
+		assertEquals("name", scanner.getName());
+		assertEquals("", scanner.getValue());
+
+		scanner.scan("=x");
+		assertEquals("", scanner.getName());
+		assertEquals("x", scanner.getValue());
+
+		scanner.scan("-");
+		assertEquals(ArgumentScanner.SHORTOPTION, scanner.getKind());
+		assertEquals("", scanner.getName());
+	}
+
+	/**
+	 * The tokens of the arguments, as they have been created by the regex and split
+	 * based tokenizer before the scanner
+	 */
+	@Test
+	public void testTokensLikeBefore() throws Exception {
+		assertTokens("option (--):-foo=>x ", "---foo=x");
+		//A prefix character within combined short options is an option without name
+		assertTokens("short option (-):a=>null option (--):=>null short option (-):b=>null ", "-a-b");
+		assertTokens("short option (-):a=>null short option (-):b=>val ", "-ab=val");
+		assertTokens("short option (-):a=>null ", "-a=");
+		assertTokens("short option (-):f=>x=y ", "-f=x=y");
+		assertTokens("option (--):file=> ", "--file=");
+		assertTokens("option (--):file=>null ", "--file");
+		assertTokens("parameter:name=> ", "name=");
+		assertTokens("parameter:name=>x=y ", "name=x=y");
+		assertTokens("parameter:name=>null ", "name");
+
+		//Empty arguments and arguments without name are left out...
+		assertTokens("option (--):file=>2 ", "", "=x", "--", "--file=2");
+		assertTokens("option (--):opt=>null parameter:child=>c parameter:child=>d ", "--opt", "child=c", "--", "child=d");
+		assertTokens("short option (-):a=>null short option (-):b=>null ", "-a", "-", "-b");
+		assertTokens("", "--=x");
+		//...unless they are the last token after another token
+		assertTokens("option (--):file=>1 option (--):=>null ", "--file=1", "--", "-");
+		assertTokens("option (--):file=>1 parameter:=>x ", "--file=1", "=x");
+
+		//A value without short options is the value of the token before
+		assertTokens("option (--):file=>x ", "--file", "-=x");
+		assertTokens("option (--):file=>y option (--):=>null ", "--file=1", "--", "-=y");
+		assertTokens("", "-=x");
+	}
+
+	/**
+	 *
+	 *
+	 * @param expected
+	 * @param args
+	 */
+	private static void assertTokens(String expected, String... args) {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("file", "").addShortAlias('f');
+		cmdop.parse(args, false);
+
+		StringBuilder sb = new StringBuilder();
+
+		for (PreParsedChain chain = cmdop.getPreParsedChain(); chain != null; chain = chain.getNext()) {
+			sb.append(chain.getTypeDescString()).append(":").append(chain.getName())
+			.append("=>").append(chain.getValue()).append(" ");
+		}
+
+		assertEquals(Arrays.toString(args), expected, sb.toString());
+	}
+
+}
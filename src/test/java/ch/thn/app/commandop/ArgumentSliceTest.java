@@ -0,0 +1,44 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ArgumentSliceTest {
+
+	@Test
+	public void testSlice() throws Exception {
+		ArgumentSlice slice = new ArgumentSlice("--port=1", 2, 6);
+
+		assertEquals("port".hashCode(), slice.hashCode());
+		assertTrue(slice.equals("port"));
+		assertFalse(slice.equals("por"));
+		assertEquals('r', slice.charAt(2));
+		assertEquals("or", slice.subSequence(1, 3).toString());
+		assertEquals("port", slice.toString());
+	}
+
+	@Test
+	public void testParseWithSlices() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption server = cmdop.addOption("server", "");
+		server.setAsBoolean();
+		server.addParameter("port", "");
+		server.addParameter("dummy", "");
+		cmdop.addOption("aaa", "").addShortAlias('a').setAsBoolean();
+		cmdop.addOption("omulti", "").setAsMultiValueItem();
+		cmdop.useArgumentSlices(true);
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--server port=1234 dummy=a=b -a --omulti x y --unknown=z".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals("1234", result.getValue(server.getChild("port")));
+		assertEquals("a=b", result.getValue(server.getChild("dummy")));
+		assertEquals("true", result.getValue(schema.getOption("aaa")));
+		assertEquals(2, result.getNumOfValues(schema.getOption("omulti")));
+		assertEquals("y", result.getValue(schema.getOption("omulti"), 1));
+		assertEquals("z", result.getUnknownArguments().get("unknown").getValue());
+	}
+
+}
@@ -0,0 +1,78 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ChildrenSupplierTest {
+
+	@Test
+	public void testSuppliedChildren() throws Exception {
+		final List<String> created = new ArrayList<String>();
+		CmdLnChildrenSupplier supplier = new CmdLnChildrenSupplier() {
+			@Override
+			public void addChildren(CmdLnParameter item) {
+				created.add(item.getName());
+				item.addParameter("target", "").setMandatory();
+				item.addParameter("force", "").setAsBoolean();
+			}
+		};
+
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("deploy", "").setChildrenSupplier(supplier);
+		cmdop.addOption("rollback", "").setChildrenSupplier(supplier);
+
+		//Only the children of the given option are created
+		assertTrue(cmdop.parse(Arrays.asList("--deploy", "target=prod", "force"), true));
+		assertEquals(Arrays.asList("deploy"), created);
+		assertEquals("prod", cmdop.getOption("deploy").getChild("target").getValue());
+
+		String help = new CommandOPPrinter(cmdop).getDefinedItems(false, false, false, false);
+		assertTrue(help.contains("[--rollback] ..."));
+		assertEquals(1, created.size());
+
+		//The mandatory child of a created subtree is validated
+		cmdop.reset();
+		assertFalse(cmdop.parse(Arrays.asList("--deploy", "force"), true));
+
+		//Compiling creates all the children
+		CommandOPSchema schema = cmdop.compile();
+		assertEquals(Arrays.asList("deploy", "rollback"), created);
+		assertTrue(schema.parse("--rollback target=v1".split(" ")).getErrorMessages().isEmpty());
+	}
+
+	@Test
+	public void testMandatorySuppliedChild() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("deploy", "").setChildrenSupplier(new CmdLnChildrenSupplier() {
+			@Override
+			public void addChildren(CmdLnParameter item) {
+				item.addParameter("target", "").setMandatory();
+			}
+		});
+		cmdop.addOption("other", "").setAsBoolean();
+
+		//Nothing after the option needs its children, they are still validated
+		assertFalse(cmdop.parse(Arrays.asList("--deploy"), true));
+		assertTrue(cmdop.getErrorMessages().get(0).contains("'target'"));
+
+		cmdop.reset();
+		assertFalse(cmdop.parse(Arrays.asList("--deploy", "--other"), true));
+
+		//Not created if the option is not given
+		CommandOP cmdop2 = new CommandOP();
+		cmdop2.addOption("deploy", "").setChildrenSupplier(new CmdLnChildrenSupplier() {
+			@Override
+			public void addChildren(CmdLnParameter item) {
+				fail("The children are not needed");
+			}
+		});
+		cmdop2.addOption("other", "").setAsBoolean();
+		assertTrue(cmdop2.parse(Arrays.asList("--other"), true));
+	}
+
+}
@@ -0,0 +1,134 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class CommandOPSchemaTest {
+
+	/** A compiled schema can be shared, thus the tests which only parse use the same one */
+	private static final CommandOPSchema SERVER_CLIENT = createServerClient().compile();
+
+	/**
+	 *
+	 *
+	 * @return
+	 */
+	private static CommandOP createServerClient() {
+		CommandOP cmdop = new CommandOP();
+
+		cmdop.addOption("server", "only allowed if client not given").setAsBoolean()
+		.addParameters(
+				CommandOPFactory.newParameter("port", "mandatory, if server is given").setMandatory()
+				, CommandOPFactory.newParameter("dummy", "just another non-mandatory parameter")
+				);
+		cmdop.addOption("client", "only allowed if server not given").setAsBoolean()
+		.addParameters(
+				CommandOPFactory.newParameter("host", "mandatory, if client is given").setMandatory()
+				, CommandOPFactory.newParameter("port", "mandatory, if client is given").setMandatory()
+				);
+		cmdop.addOption("maxConnections", "5", "default=5");
+		cmdop.addOption("aaa", "defined as boolean").addShortAlias('a').setAsBoolean();
+		cmdop.addOption("omulti", "option defined as multi value item").setAsMultiValueItem();
+
+		CommandOPGroup group = new CommandOPGroup(cmdop, "server_client", CommandOPGroup.MODE_EXCLUDE);
+		group.addMember("server");
+		group.addMember("client");
+
+		cmdop.addGroup(group);
+
+		return cmdop;
+	}
+
+	@Test
+	public void testResultsAreIndependent() throws Exception {
+		CommandOPSchema schema = SERVER_CLIENT;
+
+		CmdLnValue server = schema.getOption("server");
+		CmdLnValue serverPort = server.getChild("port");
+		CmdLnValue clientHost = schema.getOption("client").getChild("host");
+		CmdLnValue maxConnections = schema.getOption("maxConnections");
+
+		CommandOPResult result1 = schema.parse("--server port=1234 --maxConnections=10 -a".split(" "));
+		CommandOPResult result2 = schema.parse("--client host=localhost --server port=1".split(" "));
+
+		assertFalse(result1.hasErrors());
+		assertEquals("true", result1.getValue(server));
+		assertEquals("1234", result1.getValue(serverPort));
+		assertEquals("10", result1.getValue(maxConnections));
+		assertEquals("true", result1.getValue(schema.getOption("aaa")));
+		assertFalse(result1.isParsed(clientHost));
+
+		assertTrue(result2.hasErrors());
+		assertEquals("1", result2.getValue(serverPort));
+		assertEquals("localhost", result2.getValue(clientHost));
+		assertEquals("5", result2.getValue(maxConnections));
+		assertFalse(result2.isParsed(maxConnections));
+
+		//The definition itself is not touched
+		assertFalse(server.isParsed());
+		assertNull(serverPort.getValue());
+	}
+
+	@Test
+	public void testConcurrentParsing() throws Exception {
+		final CommandOPSchema schema = SERVER_CLIENT;
+		final CmdLnValue serverPort = schema.getOption("server").getChild("port");
+		final CmdLnValue omulti = schema.getOption("omulti");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+
+		for (int i = 0; i < 200; i++) {
+			final String port = String.valueOf(i);
+
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					CommandOPResult result = schema.parse(("--server port=" + port + " --omulti " + port + " x").split(" "));
+
+					return !result.hasErrors()
+							&& port.equals(result.getValue(serverPort))
+							&& result.getMultiValues(omulti).size() == 2
+							&& port.equals(result.getValue(omulti, 0));
+				}
+			}));
+		}
+
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get());
+		}
+
+		executor.shutdown();
+	}
+
+	@Test
+	public void testCompiledDefinitionIsImmutable() throws Exception {
+		CommandOP cmdop = createServerClient();
+		cmdop.compile();
+
+		assertTrue(cmdop.isCompiled());
+
+		try {
+			cmdop.addOption("another", "");
+			fail("Adding an option to a compiled definition should fail");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+
+		try {
+			((CmdLnParameter)cmdop.getOption("server")).setMandatory();
+			fail("Changing an item of a compiled definition should fail");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CompactValueListTest {
+
+	@Test
+	public void testAddAndGet() throws Exception {
+		CompactValueList list = new CompactValueList();
+		List<String> expected = new ArrayList<String>();
+
+		//More values and characters than the initial arrays hold
+		for (int i = 0; i < 1000; i++) {
+			String value = (i % 7 == 0 ? "" : "value" + i);
+			list.add(value);
+			expected.add(value);
+		}
+
+		assertEquals(expected, list);
+		assertEquals("", list.get(0));
+		assertEquals("value999", list.get(999));
+
+		try {
+			list.get(1000);
+			fail("Reading past the end should fail");
+		} catch (IndexOutOfBoundsException e) {
+			//Expected
+		}
+	}
+
+	@Test
+	public void testIndexOf() throws Exception {
+		CompactValueList list = new CompactValueList();
+
+		//Searched without hash table
+		list.addAll(Arrays.asList("a", "b", "a"));
+		assertEquals(0, list.indexOf("a"));
+		assertEquals(1, list.indexOf("b"));
+		assertEquals(-1, list.indexOf("c"));
+		assertFalse(list.contains(null));
+
+		//With hash table, which is kept up to date when values are added.
+		//"Aa" and "BB" have the same hash code.
+		for (int i = 0; i < 100; i++) {
+			list.add("id" + i);
+		}
+		list.add("Aa");
+		list.add("BB");
+		list.add("b");
+
+		assertEquals(1, list.indexOf("b"));
+		assertEquals(45, list.indexOf("id42"));
+		assertEquals(104, list.indexOf("BB"));
+		assertEquals(-1, list.indexOf("id100"));
+	}
+
+	@Test
+	public void testSet() throws Exception {
+		CompactValueList list = new CompactValueList();
+		List<String> expected = new ArrayList<String>();
+
+		list.addAll(Arrays.asList("a", "bb", "c"));
+		assertEquals("bb", list.set(1, "longer"));
+		list.set(0, "");
+		list.set(2, "d");
+		assertEquals(Arrays.asList("", "longer", "d"), list);
+
+		//With hash table. Few different values, thus there are duplicates
+		//and long clusters in the table.
+		Random random = new Random(1);
+		list.clear();
+		for (int i = 0; i < 200; i++) {
+			String value = "v" + random.nextInt(50);
+			list.add(value);
+			expected.add(value);
+		}
+		//Creates the hash table
+		assertEquals(expected.indexOf("v0"), list.indexOf("v0"));
+
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(expected.size());
+			String value = (random.nextBoolean() ? "v" : "value") + random.nextInt(60);
+			list.set(index, value);
+			expected.set(index, value);
+		}
+
+		assertEquals(expected, list);
+
+		for (int i = 0; i < 60; i++) {
+			assertEquals(expected.indexOf("v" + i), list.indexOf("v" + i));
+			assertEquals(expected.indexOf("value" + i), list.indexOf("value" + i));
+		}
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		CompactValueList list = new CompactValueList();
+
+		for (int i = 0; i < 20; i++) {
+			list.add("x" + i);
+		}
+		assertTrue(list.contains("x10"));
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertFalse(list.contains("x10"));
+
+		list.add("y");
+		assertEquals(Arrays.asList("y"), list);
+		assertEquals(0, list.indexOf("y"));
+	}
+
+	@Test
+	public void testCompactValues() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("ids", "").setAsCompactMultiValueItem();
+		cmdop.addOption("name", "");
+		CommandOPSchema schema = cmdop.compile();
+
+		List<String> args = new ArrayList<String>();
+		args.add("--ids");
+
+		for (int i = 0; i < 1000; i++) {
+			args.add("id" + (i % 600));
+		}
+
+		args.add("--name=x");
+
+		CommandOPResult result = schema.parse(args);
+		List<String> ids = result.getMultiValues(schema.getOption("ids"));
+
+		assertFalse(result.hasErrors());
+		assertEquals(600, ids.size());
+		assertEquals("id0", ids.get(0));
+		assertEquals("id599", ids.get(599));
+		assertEquals(42, ids.indexOf("id42"));
+		assertEquals("x", result.getValue(schema.getOption("name")));
+	}
+
+}
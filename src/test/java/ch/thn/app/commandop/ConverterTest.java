@@ -0,0 +1,47 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import ch.thn.app.commandop.converter.CommandOPConverters;
+
+public class ConverterTest {
+
+	private enum Mode { FAST, SAFE }
+
+	@Test
+	public void testConverters() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("config", "").setConverter(Path.class);
+		cmdop.addOption("timeout", "30s", "").setConverter(CommandOPConverters.DURATION);
+		cmdop.addOption("cache", "").setConverter(CommandOPConverters.BYTE_SIZE);
+		cmdop.addOption("server", "").setConverter(InetSocketAddress.class);
+		cmdop.addOption("mode", "").setConverter(Mode.class);
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--config=etc/app.conf --cache=512MB --server=localhost:8080 --mode=safe".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals(Paths.get("etc/app.conf"), result.getConvertedValue(schema.getOption("config"), Path.class));
+		//The default value
+		assertEquals(Long.valueOf(30000), result.getConvertedValue(schema.getOption("timeout"), Long.class));
+		assertEquals(Long.valueOf(512L * 1024 * 1024), result.getConvertedValue(schema.getOption("cache"), Long.class));
+		assertEquals(8080, result.getConvertedValue(schema.getOption("server"), InetSocketAddress.class).getPort());
+		assertEquals(Mode.SAFE, result.getConvertedValue(schema.getOption("mode"), Mode.class));
+		assertEquals("duration", schema.getOption("timeout").getTypeString());
+		assertEquals("FAST|SAFE", schema.getOption("mode").getTypeString());
+
+		result = schema.parse("--timeout=1h30m".split(" "));
+		assertEquals(Long.valueOf(90 * 60 * 1000), result.getConvertedValue(schema.getOption("timeout"), Long.class));
+
+		result = schema.parse("--timeout=30x --server=localhost".split(" "));
+		assertEquals(2, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("[DurationConverter]"));
+	}
+
+}
@@ -0,0 +1,46 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DefaultValueSupplierTest {
+
+	@Test
+	public void testDefaultValueSupplier() throws Exception {
+		final List<String> computed = new ArrayList<String>();
+
+		CmdLnDefaultValueSupplier cpus = new CmdLnDefaultValueSupplier() {
+
+			@Override
+			public String getDefaultValue(CmdLnParameter item) {
+				computed.add(item.getName());
+				return "8";
+			}
+		};
+
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("threads", "").setAsInt().setDefaultValueSupplier(cpus, "number of CPUs");
+		cmdop.addOption("workers", "").setDefaultValueSupplier(cpus, "number of CPUs");
+		CommandOPSchema schema = cmdop.compile();
+
+		//Printing shows the placeholder
+		String help = new CommandOPPrinter(cmdop).getDefinedItems(false, true, false, false);
+		assertTrue(help.contains("(number of CPUs)"));
+		assertTrue(computed.isEmpty());
+
+		//A given value does not need the default value
+		CommandOPResult result = schema.parse("--workers=2".split(" "));
+		assertEquals("2", result.getValue(schema.getOption("workers")));
+		assertTrue(computed.isEmpty());
+
+		assertEquals(8, result.getIntValue(schema.getOption("threads")));
+		assertEquals(8, schema.parse(new String[0]).getIntValue(schema.getOption("threads")));
+		assertEquals(Arrays.asList("threads"), computed);
+	}
+
+}
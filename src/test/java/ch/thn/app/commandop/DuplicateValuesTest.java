@@ -0,0 +1,40 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DuplicateValuesTest {
+
+	@Test
+	public void testDuplicateValues() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("drop", "").setAsMultiValueItem();
+		cmdop.addOption("keep", "").setAsMultiValueItem().setDuplicateValues(CmdLnItem.DUPLICATES_KEEP);
+		cmdop.addOption("reject", "").setAsMultiValueItem().setDuplicateValues(CmdLnItem.DUPLICATES_REJECT);
+		CommandOPSchema schema = cmdop.compile();
+
+		List<String> args = new ArrayList<String>();
+		args.add("--drop");
+
+		//Enough values for the duplicate check to use a set
+		for (int i = 0; i < 100; i++) {
+			args.add("file" + (i % 50));
+		}
+
+		CommandOPResult result = schema.parse(args);
+		assertFalse(result.hasErrors());
+		assertEquals(50, result.getMultiValues(schema.getOption("drop")).size());
+
+		result = schema.parse("--keep a b a --reject c d c".split(" "));
+		assertEquals(Arrays.asList("a", "b", "a"), result.getMultiValues(schema.getOption("keep")));
+		assertEquals(Arrays.asList("c", "d"), result.getMultiValues(schema.getOption("reject")));
+		assertEquals(1, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("already has the value 'c'"));
+	}
+
+}
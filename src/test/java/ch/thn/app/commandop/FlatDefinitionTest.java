@@ -0,0 +1,201 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Parses random flat definitions (without child items) once with the flat
+ * resolution and once like a definition with child items, which have to give
+ * the same results.
+ *
+ */
+public class FlatDefinitionTest {
+
+	private static final int DEFINITIONS = 500;
+	private static final int PARSES = 10;
+
+	/**
+	 *
+	 *
+	 * @param seed
+	 * @return
+	 */
+	private static CommandOP createDefinition(long seed) {
+		Random random = new Random(seed);
+		CommandOP cmdop = new CommandOP();
+
+		int options = 1 + random.nextInt(10);
+		for (int i = 0; i < options; i++) {
+			CmdLnOption option = (random.nextInt(4) == 0
+					? cmdop.addOption("o" + i, "def" + i, "") : cmdop.addOption("o" + i, ""));
+
+			if (random.nextInt(3) == 0) {
+				option.addShortAlias((char)('a' + i));
+			}
+
+			if (random.nextInt(4) == 0) {
+				option.addAlias("alias" + i);
+			}
+
+			setRandomType(random, option);
+		}
+
+		int parameters = random.nextInt(6);
+		for (int i = 0; i < parameters; i++) {
+			//A non-option-parameter with the name of an option
+			String name = (i == 0 && random.nextBoolean() ? "o0" : "p" + i);
+			CmdLnParameter parameter = cmdop.addParameter(name, "");
+
+			if (random.nextInt(4) == 0) {
+				parameter.addAlias("palias" + i);
+			}
+
+			setRandomType(random, parameter);
+		}
+
+		return cmdop;
+	}
+
+	/**
+	 *
+	 *
+	 * @param random
+	 * @param item
+	 */
+	private static void setRandomType(Random random, CmdLnParameter item) {
+		switch (random.nextInt(4)) {
+		case 1:
+			item.setAsBoolean();
+			break;
+		case 2:
+			if (random.nextBoolean()) {
+				item.setAsMultiValueItem();
+			} else {
+				//Limits which can fail the validation
+				item.setAsMultiValueItem(1 + random.nextInt(2), random.nextBoolean() ? 0 : 2);
+			}
+			break;
+		case 3:
+			item.setValueRequired();
+			break;
+		default:
+			break;
+		}
+
+		if (random.nextInt(5) == 0) {
+			item.setMandatory();
+		}
+	}
+
+	/**
+	 *
+	 *
+	 * @param random
+	 * @return
+	 */
+	private static List<String> createArgs(Random random) {
+		List<String> args = new ArrayList<String>();
+		int count = random.nextInt(12);
+
+		for (int i = 0; i < count; i++) {
+			String value = (random.nextInt(3) == 0 ? "=v" + i : "");
+
+			switch (random.nextInt(9)) {
+			case 0:
+				args.add("--o" + random.nextInt(11) + value);
+				break;
+			case 1:
+				args.add("--alias" + random.nextInt(11) + value);
+				break;
+			case 2:
+				//Short options, combined or given like long options
+				args.add("-" + (char)('a' + random.nextInt(11)) + (random.nextBoolean() ? (char)('a' + random.nextInt(11)) : "") + value);
+				break;
+			case 3:
+				args.add("-o" + random.nextInt(11));
+				break;
+			case 4:
+				args.add("p" + random.nextInt(7) + value);
+				break;
+			case 5:
+				args.add("palias" + random.nextInt(7) + value);
+				break;
+			case 6:
+				args.add("o" + random.nextInt(11) + value);
+				break;
+			case 7:
+				//A value of a multi value item, or an unknown parameter
+				args.add("x" + i);
+				break;
+			default:
+				args.add(random.nextBoolean() ? "--unknown" + value : "--p" + random.nextInt(7));
+				break;
+			}
+		}
+
+		return args;
+	}
+
+	@Test
+	public void testFlatResolutionIsLikeTreeResolution() throws Exception {
+		for (int d = 0; d < DEFINITIONS; d++) {
+			CommandOPSchema flat = createDefinition(d).compile();
+
+			CommandOP tree = createDefinition(d);
+			tree.useFlatResolution(false);
+			CommandOPSchema treeSchema = tree.compile();
+
+			Random random = new Random(-d);
+
+			for (int p = 0; p < PARSES; p++) {
+				List<String> args = createArgs(random);
+
+				assertSameResult("Definition " + d + ", " + args, flat.getCommandOP(), flat.parse(args),
+						tree, treeSchema.parse(args));
+			}
+		}
+	}
+
+	/**
+	 *
+	 *
+	 * @param message
+	 * @param cmdop1
+	 * @param result1
+	 * @param cmdop2
+	 * @param result2
+	 */
+	private static void assertSameResult(String message, CommandOP cmdop1, CommandOPResult result1,
+			CommandOP cmdop2, CommandOPResult result2) {
+		Iterator<CmdLnValue> items2 = CommandOPTools.createFlatList(cmdop2).iterator();
+
+		for (CmdLnValue item1 : CommandOPTools.createFlatList(cmdop1)) {
+			CmdLnValue item2 = items2.next();
+			String itemMessage = message + ", " + item1.getName();
+
+			assertEquals(itemMessage, item1.getName(), item2.getName());
+			assertEquals(itemMessage, result1.isParsed(item1), result2.isParsed(item2));
+			assertEquals(itemMessage, result1.getValue(item1), result2.getValue(item2));
+			assertEquals(itemMessage, result1.getMultiValues(item1), result2.getMultiValues(item2));
+		}
+
+		assertEquals(message, result1.getErrorMessages(), result2.getErrorMessages());
+		assertEquals(message, result1.getInfoMessages(), result2.getInfoMessages());
+
+		Map<String, PreParsedItem> unknown1 = result1.getUnknownArguments();
+		Map<String, PreParsedItem> unknown2 = result2.getUnknownArguments();
+
+		assertEquals(message, unknown1.keySet(), unknown2.keySet());
+		for (String name : unknown1.keySet()) {
+			assertEquals(message, unknown1.get(name).toString(), unknown2.get(name).toString());
+		}
+	}
+
+}
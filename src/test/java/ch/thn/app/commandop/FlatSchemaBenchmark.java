@@ -0,0 +1,110 @@
+package ch.thn.app.commandop;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the parsing of a flat definition (options and non-option-parameters
+ * without child items). This is not a unit test, it is started through its
+ * main method with the test classes on the class path.
+ *
+ * @author Thomas Naeff (github.com/thnaeff)
+ *
+ */
+public class FlatSchemaBenchmark {
+
+	private static final int OPTIONS = 60;
+	private static final int WARMUP = 20000;
+	private static final int ROUNDS = 5;
+	private static final int PARSES = 50000;
+
+	/**
+	 *
+	 *
+	 * @return
+	 */
+	private static CommandOP createDefinition() {
+		CommandOP cmdop = new CommandOP();
+
+		for (int i = 0; i < OPTIONS; i++) {
+			CmdLnOption option = cmdop.addOption("option" + i, "option number " + i);
+
+			if (i % 15 == 0) {
+				option.setMandatory();
+			}
+
+			if (i < 26) {
+				option.addShortAlias((char)('a' + i)).setAsBoolean();
+			}
+		}
+
+		cmdop.addOption("files", "").setAsMultiValueItem();
+		cmdop.addParameter("input", "");
+		cmdop.addParameter("output", "");
+
+		CommandOPGroup group = new CommandOPGroup(cmdop, "mode", CommandOPGroup.MODE_EXCLUDE);
+		group.addMember("option27");
+		group.addMember("option28");
+		cmdop.addGroup(group);
+
+		return cmdop;
+	}
+
+	/**
+	 *
+	 *
+	 * @return
+	 */
+	private static List<String> createArgs() {
+		List<String> args = new ArrayList<String>();
+
+		args.add("-abcdefgh");
+		args.add("-uvwxyz");
+
+		for (int i = 0; i < OPTIONS; i += 3) {
+			args.add("--option" + i + "=" + i);
+		}
+
+		args.add("input=in.txt");
+		args.add("output=out.txt");
+		args.add("--files");
+
+		for (int i = 0; i < 20; i++) {
+			args.add("file" + i);
+		}
+
+		return args;
+	}
+
+	/**
+	 *
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		CommandOPSchema schema = createDefinition().compile();
+		List<String> argsList = createArgs();
+
+		if (schema.parse(argsList).hasErrors()) {
+			throw new IllegalStateException("Benchmark arguments do not parse: " + schema.parse(argsList).getErrorMessages());
+		}
+
+		for (int i = 0; i < WARMUP; i++) {
+			schema.parse(argsList);
+		}
+
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+
+			for (int i = 0; i < PARSES; i++) {
+				schema.parse(argsList);
+			}
+
+			long time = System.nanoTime() - start;
+
+			System.out.println("Round " + round + ": " + (time / PARSES) + " ns per parse ("
+					+ argsList.size() + " arguments, " + (OPTIONS + 3) + " items)");
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class IgnoreCaseTest {
+
+	@Test
+	public void testIgnoreCase() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.ignoreCase(true);
+		cmdop.addOption("server", "").addParameter("port", "");
+		cmdop.addOption("maxConnections", "5", "");
+		cmdop.addOption("verbose", "").addShortAlias('v').setAsBoolean();
+		cmdop.addOption("version", "").addShortAlias('V').setAsBoolean();
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--SERVER Port=ABC --MaxConnections=7 -V".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals("ABC", result.getValue(schema.getOption("server").getChild("port")));
+		assertEquals("7", result.getValue(schema.getOption("maxConnections")));
+		//Short options are case sensitive
+		assertTrue(result.isParsed(schema.getOption("version")));
+		assertFalse(result.isParsed(schema.getOption("verbose")));
+
+		//The suggestions ignore the case too, and have the defined names
+		result = schema.parse("--VERBSOE --MAXCONNECTION=7 --server PROT=1".split(" "));
+		assertEquals(Arrays.asList("verbose"), result.getUnknownArguments().get("VERBSOE").getSuggestions());
+		assertEquals(Arrays.asList("maxConnections"), result.getUnknownArguments().get("MAXCONNECTION").getSuggestions());
+		assertEquals(Arrays.asList("port"), result.getUnknownArguments().get("PROT").getSuggestions());
+	}
+
+	@Test
+	public void testIgnoreCaseCollision() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.ignoreCase(true);
+		cmdop.addOption("server", "").addParameter("port", "");
+		cmdop.getOption("server").addParameter("Port", "");
+
+		try {
+			cmdop.compile();
+			fail("Names which only differ in case should not be accepted");
+		} catch (CommandOPError e) {
+			assertTrue(e.getMessage().contains("'port' and 'Port'"));
+		}
+	}
+
+	@Test
+	public void testFoldCase() throws Exception {
+		ArgumentScanner scanner = new ArgumentScanner();
+
+		scanner.scan("--MaxConnections=ABC", true);
+		assertEquals("MaxConnections", scanner.getName());
+		assertEquals("maxconnections", scanner.getFoldedName());
+		assertEquals("ABC", scanner.getValue());
+
+		scanner.scan("--lower", true);
+		assertNull(scanner.getFoldedName());
+
+		//Short options are never folded
+		scanner.scan("-V", true);
+		assertNull(scanner.getFoldedName());
+
+		assertEquals("port", ArgumentScanner.foldCase("Port"));
+		assertSame(ArgumentScanner.getShortName('v'), ArgumentScanner.getShortName('v'));
+	}
+
+	@Test
+	public void testSuggestionIndex() throws Exception {
+		SuggestionIndex index = new SuggestionIndex(Arrays.asList("maxConnections", "MAXCONNECTIONS", "verbose"), true);
+
+		//Compared in lower case, returned as defined (the first of the names)
+		assertEquals(Arrays.asList("maxConnections"), index.getSuggestions("maxconection"));
+		assertEquals(Arrays.asList("verbose"), index.getSuggestions("verbsoe"));
+		//Case sensitive, the upper case name is too far away
+		assertTrue(new SuggestionIndex(Arrays.asList("verbose")).getSuggestions("VERBSOE").isEmpty());
+	}
+
+}
@@ -0,0 +1,45 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ItemIndexTest {
+
+	@Test
+	public void testLookup() throws Exception {
+		Map<String, CmdLnItem> items = new LinkedHashMap<String, CmdLnItem>();
+
+		//"Aa" and "BB" have the same hash code
+		items.put("Aa", CommandOPFactory.newParameter("Aa", ""));
+		items.put("BB", CommandOPFactory.newParameter("BB", ""));
+		for (int i = 0; i < 100; i++) {
+			items.put("o" + i, CommandOPFactory.newParameter("o" + i, ""));
+		}
+
+		ItemIndex index = new ItemIndex(items);
+
+		assertSame(items.get("Aa"), index.get("Aa"));
+		assertSame(items.get("BB"), index.get(new ArgumentSlice("--BB", 2, 4)));
+		assertSame(items.get("o42"), index.get("o42"));
+		assertNull(index.get("o100"));
+		assertNull(new ItemIndex(new LinkedHashMap<String, CmdLnItem>()).get("Aa"));
+	}
+
+	@Test
+	public void testIndexFollowsDefinition() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("o1", "");
+
+		assertSame(cmdop.getOptions().get("o1"), cmdop.findOption("o1"));
+		assertNull(cmdop.findOption("o2"));
+
+		//The index is updated when options are added
+		cmdop.addOption("o2", "");
+		assertNotNull(cmdop.findOption("o2"));
+	}
+
+}
@@ -0,0 +1,59 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LazyResetTest {
+
+	@Test
+	public void testResetReuse() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption option = cmdop.addOption("option", "default", "");
+		option.addParameter("child", "");
+		cmdop.addOption("files", "").setAsMultiValueItem();
+
+		assertTrue(cmdop.parse(Arrays.asList("--option=a", "child=c", "--files", "f1", "f2"), false));
+		assertEquals("c", option.getChild("child").getValue());
+
+		//The states of the items are only reset when they are used again
+		cmdop.reset();
+		assertTrue(cmdop.parse(Arrays.asList("--files", "f3"), false));
+
+		assertFalse(option.isParsed());
+		assertEquals("default", option.getValue());
+		assertNull(option.getChild("child").getValue());
+		assertEquals(Arrays.asList("f3"), cmdop.getOption("files").getMultiValues());
+	}
+
+	@Test
+	public void testReadingDoesNotChangeItems() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption option = cmdop.addOption("option", "default", "");
+		cmdop.addOption("count", "1", "").setAsInt();
+		CommandOPSchema schema = cmdop.compile();
+
+		schema.parse("--option=a --count=2".split(" "));
+
+		//The items of the schema are shared, reading them does not create states
+		assertEquals("default", option.getValue());
+		assertFalse(option.isParsed());
+		assertEquals(1, schema.getOption("count").getIntValue());
+		assertTrue(option.toString().contains("option=[]"));
+		assertSame(CmdLnItemState.UNPARSED, option.peekState());
+		assertSame(CmdLnItemState.UNPARSED, cmdop.getOption("count").peekState());
+
+		//A reset state is not reset by reading it
+		CommandOP cmdop2 = new CommandOP();
+		CmdLnOption option2 = cmdop2.addOption("option", "default", "");
+		assertTrue(cmdop2.parse(Arrays.asList("--option=a"), false));
+		CmdLnItemState state = option2.peekState();
+
+		cmdop2.reset();
+		assertEquals("default", option2.getValue());
+		assertEquals("a", state.values.get(0));
+	}
+
+}
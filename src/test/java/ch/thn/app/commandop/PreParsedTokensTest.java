@@ -0,0 +1,118 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PreParsedTokensTest {
+
+	@Test
+	public void testGrow() throws Exception {
+		//The smallest initial capacity is 4
+		PreParsedTokens tokens = new PreParsedTokens(1);
+
+		for (int i = 0; i < 20; i++) {
+			tokens.add(i % 3, "name" + i, (i % 2 == 0 ? "value" + i : null), i / 2);
+		}
+
+		assertEquals(20, tokens.size());
+
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i % 3, tokens.getKind(i));
+			assertEquals("name" + i, tokens.getName(i));
+			assertEquals(i % 2 == 0, tokens.hasValue(i));
+			assertEquals(i % 2 == 0 ? "value" + i : null, tokens.getValue(i));
+			assertEquals(i / 2, tokens.getArgPos(i));
+		}
+
+		tokens.setLastValue("last");
+		assertEquals("last", tokens.getValue(19));
+	}
+
+	@Test
+	public void testKeys() throws Exception {
+		PreParsedTokens tokens = new PreParsedTokens(4);
+
+		tokens.add(ArgumentScanner.OPTION, "Server", null, 0);
+		//Without key, the name is the key
+		assertSame(tokens.getNameSequence(0), tokens.getKeySequence(0));
+
+		tokens.setLastKey("server");
+		tokens.add(ArgumentScanner.PARAMETER, "port", "1", 1);
+
+		//The keys grow with the other arrays once they have been created
+		for (int i = 0; i < 10; i++) {
+			tokens.add(ArgumentScanner.PARAMETER, "P" + i, null, 2 + i);
+			tokens.setLastKey("p" + i);
+		}
+
+		assertEquals("server", tokens.getKeySequence(0));
+		assertEquals("Server", tokens.getName(0));
+		assertEquals("port", tokens.getKeySequence(1));
+		assertEquals("p9", tokens.getKeySequence(11));
+		assertEquals("P9", tokens.getName(11));
+
+		//The canonical name replaces the given name
+		tokens.setName(0, "server");
+		assertEquals("server", tokens.getName(0));
+	}
+
+	@Test
+	public void testChain() throws Exception {
+		PreParsedTokens tokens = new PreParsedTokens(4);
+		assertNull(tokens.getChain());
+
+		tokens.add(ArgumentScanner.OPTION, "server", null, 0);
+		tokens.add(ArgumentScanner.PARAMETER, new ArgumentSlice("port=1", 0, 4), new ArgumentSlice("port=1", 5, 6), 1);
+		tokens.add(ArgumentScanner.SHORTOPTION, "v", null, 2);
+
+		PreParsedChain chain = tokens.getChain();
+
+		assertTrue(chain.isOption());
+		assertEquals("server", chain.getName());
+		assertFalse(chain.hasPrevious());
+
+		chain = chain.getNext();
+		assertTrue(chain.isParameter());
+		assertEquals("port", chain.getName());
+		assertEquals("1", chain.getValue());
+		assertEquals(1, chain.getChainPos());
+
+		chain = chain.getNext();
+		assertTrue(chain.isShortOption());
+		assertFalse(chain.hasNext());
+
+		//The chain is only created once
+		assertSame(tokens.getChain(), tokens.getChain());
+	}
+
+	@Test
+	public void testManyArguments() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("files", "").setAsMultiValueItem();
+		for (char c = 'a'; c <= 'z'; c++) {
+			cmdop.addOption("option" + c, "").addShortAlias(c).setAsBoolean();
+		}
+
+		//Combined short options create more tokens than there are arguments
+		List<String> args = new ArrayList<String>(Arrays.asList("-abcdefghijklm", "-nopqrstuvwxyz", "--files"));
+		for (int i = 0; i < 100; i++) {
+			args.add("f" + i);
+		}
+
+		assertTrue(cmdop.parse(args, false));
+		assertEquals("true", cmdop.getOption("z").getValue());
+		assertEquals(100, cmdop.getOption("files").getMultiValues().size());
+
+		String preParsed = new CommandOPPrinter(cmdop).getPreParsed(true);
+		assertTrue(preParsed.startsWith("a=null (option) b=null (option) "));
+		assertTrue(preParsed.contains(" z=null (option) files=null (option) f0=null (param) "));
+		assertTrue(preParsed.endsWith(" f99=null (param) "));
+		assertEquals(26 + 1 + 100, preParsed.split(" \\(").length - 1);
+	}
+
+}
@@ -0,0 +1,42 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ReleaseParseArtifactsTest {
+
+	@Test
+	public void testReleaseParseArtifacts() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("option", "").addParameter("child", "").setAsBoolean();
+		cmdop.addOption("leaf", "").setMandatory();
+		cmdop.releaseParseArtifacts(true);
+
+		assertTrue(cmdop.parse(Arrays.asList("--option", "child", "--leaf=x"), false));
+
+		//The values are kept, the arguments and tokens are not
+		assertEquals("x", cmdop.getOption("leaf").getValue());
+		assertTrue(cmdop.getOption("leaf").isMandatory());
+		assertEquals("true", cmdop.getOption("option").getChild("child").getValue());
+		assertNull(cmdop.getArgs());
+		assertNull(cmdop.getPreParsedChain());
+	}
+
+	@Test
+	public void testCompiledDefinition() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("option", "");
+		cmdop.compile();
+
+		try {
+			cmdop.releaseParseArtifacts(true);
+			fail("Changing how a compiled definition parses should fail");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class RepeatableOptionTest {
+
+	@Test
+	public void testRepeatableOption() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption worker = cmdop.addOption("worker", "");
+		worker.setRepeatable();
+		worker.addParameter("host", "").setMandatory();
+		worker.addParameter("threads", "4", "");
+		CommandOPSchema schema = cmdop.compile();
+		CmdLnValue host = schema.getOption("worker").getChild("host");
+		CmdLnValue threads = schema.getOption("worker").getChild("threads");
+
+		CommandOPResult result = schema.parse("--worker host=a threads=8 --worker host=b --worker host=c threads=2".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals(3, result.getNumOfOccurrences(schema.getOption("worker")));
+		assertEquals(3, result.getNumOfOccurrences(host));
+		assertEquals("a", result.getOccurrenceValue(host, 0));
+		assertEquals("b", result.getOccurrenceValue(host, 1));
+		assertEquals("c", result.getOccurrenceValue(host, 2));
+		assertEquals("8", result.getOccurrenceValue(threads, 0));
+		//Not given in the second block
+		assertFalse(result.isGivenInOccurrence(threads, 1));
+		assertEquals("4", result.getOccurrenceValue(threads, 1));
+		assertEquals("2", result.getOccurrenceValue(threads, 2));
+		//The regular value is the one of the last occurrence
+		assertEquals("c", result.getValue(host));
+
+		//The mandatory host is checked in each block
+		result = schema.parse("--worker host=a --worker threads=2".split(" "));
+		assertEquals(1, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("occurrence 2"));
+	}
+
+	@Test
+	public void testRepeatableOptionMultiValues() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption worker = cmdop.addOption("worker", "");
+		worker.setRepeatable();
+		worker.addParameter("files", "").setAsMultiValueItem(1, 2);
+		CommandOPSchema schema = cmdop.compile();
+		CmdLnValue files = schema.getOption("worker").getChild("files");
+
+		CommandOPResult result = schema.parse("--worker files a b --worker files=a --worker".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals(Arrays.asList("a", "b"), result.getOccurrenceValues(files, 0));
+		assertEquals("a", result.getOccurrenceValue(files, 0));
+		//Duplicates are checked per occurrence
+		assertEquals(Arrays.asList("a"), result.getOccurrenceValues(files, 1));
+		assertTrue(result.getOccurrenceValues(files, 2).isEmpty());
+		assertEquals(Arrays.asList("a", "b"), result.getMultiValues(files));
+
+		//The number of values is checked per occurrence
+		result = schema.parse("--worker files a b c --worker files".split(" "));
+		assertEquals(result.getErrorMessages().toString(), 2, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("limited to 2 values (occurrence 1"));
+		assertTrue(result.getErrorMessages().get(1).contains("needs at least 1 values (occurrence 2"));
+		assertEquals(Arrays.asList("a", "b"), result.getOccurrenceValues(files, 0));
+	}
+
+}
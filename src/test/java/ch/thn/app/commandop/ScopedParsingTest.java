@@ -0,0 +1,36 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ScopedParsingTest {
+
+	@Test
+	public void testScopedParsing() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("server", "").addParameter("port", "").setMandatory();
+		CmdLnOption client = cmdop.addOption("client", "");
+		client.addParameter("host", "").setMandatory();
+		client.addParameter("port", "").setMandatory();
+		CmdLnValue server = cmdop.getOption("server");
+
+		//The array is not modifiable, the arguments are not prefixed anymore
+		assertTrue(cmdop.parse(server, new String[] {"port=1234"}, true));
+		assertEquals("1234", server.getChild("port").getValue());
+		assertTrue(server.isParsed());
+
+		//Only the subtree is validated: the mandatory port of the server is not
+		//checked, but the one of the client is
+		cmdop.reset();
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse(client, new String[] {"host=localhost"});
+		assertEquals(1, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("'port'"));
+		assertEquals("localhost", result.getValue(client.getChild("host")));
+		assertTrue(result.isParsed(client));
+		assertFalse(result.isParsed(schema.getOption("server")));
+	}
+
+}
@@ -0,0 +1,28 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ShortOptionTest {
+
+	@Test
+	public void testShortOptionCluster() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("extract", "").addShortAlias('x').setAsBoolean();
+		cmdop.addOption("verbose", "").addShortAlias('v').setAsBoolean();
+		cmdop.addOption("file", "").addShortAlias('f');
+		cmdop.addOption("eacute", "").addShortAlias('\u00e9').setAsBoolean();
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse(new String[] {"-xv\u00e9f=archive.tar", "-z"});
+
+		assertFalse(result.hasErrors());
+		assertEquals("true", result.getValue(schema.getOption("extract")));
+		assertEquals("true", result.getValue(schema.getOption("verbose")));
+		assertEquals("true", result.getValue(schema.getOption("eacute")));
+		assertEquals("archive.tar", result.getValue(schema.getOption("file")));
+		assertTrue(result.getUnknownArguments().containsKey("z"));
+	}
+
+}
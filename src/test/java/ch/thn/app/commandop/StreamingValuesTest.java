@@ -0,0 +1,87 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StreamingValuesTest {
+
+	@Test
+	public void testStreamingValues() throws Exception {
+		final List<String> consumed = new ArrayList<String>();
+
+		CommandOP cmdop = new CommandOP();
+		CmdLnParameter files = cmdop.addOption("files", "").setAsStreamingMultiValueItem(new CmdLnValueConsumer() {
+
+			@Override
+			public void consumeValue(CmdLnParameter item, String value, int multiValuePos) {
+				consumed.add(multiValuePos + ":" + value);
+			}
+		});
+		files.setAsMultiValueItem(3, 0);
+		cmdop.addOption("name", "");
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--files a b c d --name=x".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertEquals(Arrays.asList("0:a", "1:b", "2:c", "3:d"), consumed);
+		assertEquals(4, result.getNumOfValues(schema.getOption("files")));
+		assertTrue(result.getMultiValues(schema.getOption("files")).isEmpty());
+
+		result = schema.parse("--files e f".split(" "));
+		assertEquals(1, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("needs at least 3 values"));
+	}
+
+	@Test
+	public void testRepeatableOption() throws Exception {
+		CmdLnValueConsumer consumer = new CmdLnValueConsumer() {
+
+			@Override
+			public void consumeValue(CmdLnParameter item, String value, int multiValuePos) {
+				//Not needed
+			}
+		};
+
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption worker = cmdop.addOption("worker", "");
+		worker.setRepeatable();
+		CmdLnParameter files = worker.addParameter("files", "");
+
+		//The values of a repeatable option are checked per occurrence, which
+		//is not possible without the values
+		try {
+			files.setAsStreamingMultiValueItem(consumer);
+			fail("An item in a repeatable option can not stream its values");
+		} catch (CommandOPError e) {
+			assertTrue(e.getMessage().contains("'files' is in the repeatable option 'worker'"));
+		}
+
+		assertFalse(files.isMultiValueItem());
+
+		CmdLnOption job = cmdop.addOption("job", "");
+		job.addParameter("input", "").addParameter("chunks", "").setAsStreamingMultiValueItem(consumer);
+
+		try {
+			job.setRepeatable();
+			fail("An option with a streaming item can not be repeatable");
+		} catch (CommandOPError e) {
+			assertTrue(e.getMessage().contains("'chunks' streams its values"));
+		}
+
+		try {
+			worker.addParameters(CommandOPFactory.newParameter("more", "").setAsStreamingMultiValueItem(consumer));
+			fail("A streaming item can not be added to a repeatable option");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+
+		assertFalse(worker.hasChild("more"));
+	}
+
+}
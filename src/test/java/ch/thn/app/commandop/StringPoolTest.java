@@ -0,0 +1,54 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class StringPoolTest {
+
+	@Test
+	public void testIntern() throws Exception {
+		StringPool pool = new StringPool(16);
+
+		String first = pool.intern(new String("batch"));
+
+		assertSame(first, pool.intern(new String("batch")));
+		//A slice finds the pooled string
+		assertSame(first, pool.intern(new ArgumentSlice("--queue=batch", 8, 13)));
+		assertEquals("node1", pool.intern(new ArgumentSlice("--host=node1", 7, 12)));
+	}
+
+	@Test
+	public void testSlotCollision() throws Exception {
+		StringPool pool = new StringPool(16);
+
+		//"Aa" and "BB" have the same hash code, thus the same slot
+		String aa = pool.intern(new String("Aa"));
+		String bb = pool.intern(new String("BB"));
+
+		assertEquals("BB", bb);
+		assertSame(bb, pool.intern(new String("BB")));
+		//Replaced, a new string is pooled
+		String aa2 = pool.intern(new String("Aa"));
+		assertEquals(aa, aa2);
+		assertNotSame(aa, aa2);
+	}
+
+	@Test
+	public void testInternStrings() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("queue", "");
+		cmdop.addOption("host", "");
+		cmdop.internStrings(true);
+		CommandOPSchema schema = cmdop.compile();
+
+		//New strings for each parsing, like read from a file
+		CommandOPResult first = schema.parse(new String[] {new String("--queue=batch"), new String("--host=node1")});
+		CommandOPResult second = schema.parse(new String[] {new String("--queue=batch"), new String("--unknown=node1")});
+
+		assertEquals("batch", first.getValue(schema.getOption("queue")));
+		assertSame(first.getValue(schema.getOption("queue")), second.getValue(schema.getOption("queue")));
+		assertSame(first.getValue(schema.getOption("host")), second.getUnknownArguments().get("unknown").getValue());
+	}
+
+}
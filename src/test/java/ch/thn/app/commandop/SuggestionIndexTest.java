@@ -0,0 +1,111 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SuggestionIndexTest {
+
+	@Test
+	public void testSuggestions() throws Exception {
+		Random random = new Random(1);
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 5000; i++) {
+			char[] name = new char[6 + random.nextInt(8)];
+			for (int j = 0; j < name.length; j++) {
+				name[j] = (char)('a' + random.nextInt(26));
+			}
+			names.add(new String(name));
+		}
+		names.add("verbose");
+
+		SuggestionIndex index = new SuggestionIndex(names);
+
+		assertEquals(Arrays.asList("verbose"), index.getSuggestions("verbos"));
+		assertEquals(Arrays.asList("verbose"), index.getSuggestions("vrebose"));
+		assertTrue(index.getSuggestions("").isEmpty());
+	}
+
+	@Test
+	public void testClosestFirst() throws Exception {
+		SuggestionIndex index = new SuggestionIndex(Arrays.asList("port", "sort", "post", "ports", "host"));
+
+		//Distance 0 first, then the names with distance 1 in sorted order
+		assertEquals(Arrays.asList("port", "ports", "post"), index.getSuggestions("port"));
+		assertTrue(new SuggestionIndex(new ArrayList<String>()).getSuggestions("port").isEmpty());
+	}
+
+	@Test
+	public void testDistance() throws Exception {
+		assertEquals(3, SuggestionIndex.getDistance("kitten", "sitting"));
+		assertEquals(0, SuggestionIndex.getDistance("same", "same"));
+		assertEquals(4, SuggestionIndex.getDistance("", "abcd"));
+	}
+
+	@Test
+	public void testLimitedDistance() throws Exception {
+		int[] previous = new int[16];
+		int[] current = new int[16];
+
+		assertEquals(3, SuggestionIndex.getDistance("kitten", "sitting", 3, previous, current));
+		assertTrue(SuggestionIndex.getDistance("kitten", "sitting", 2, previous, current) > 2);
+		//The lengths are too far apart
+		assertTrue(SuggestionIndex.getDistance("a", "abcd", 2, previous, current) > 2);
+
+		//Within the limit, the distance is the same as without limit
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			String s1 = createName(random);
+			String s2 = createName(random);
+			int limit = random.nextInt(5);
+			int distance = SuggestionIndex.getDistance(s1, s2);
+			int limited = SuggestionIndex.getDistance(s1, s2, limit, previous, current);
+
+			if (distance <= limit) {
+				assertEquals(s1 + " " + s2, distance, limited);
+			} else {
+				assertTrue(s1 + " " + s2, limited > limit);
+			}
+		}
+	}
+
+	@Test
+	public void testUnknownArguments() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("server", "").setAsBoolean();
+		cmdop.addOption("client", "").addParameter("host", "");
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--sever --client hots=localhost".split(" "));
+
+		assertEquals(Arrays.asList("server"), result.getUnknownArguments().get("sever").getSuggestions());
+		assertEquals(Arrays.asList("host"), result.getUnknownArguments().get("hots").getSuggestions());
+		assertTrue(result.getInfoMessages().get(0).endsWith("(did you mean 'server'?)"));
+
+		result = schema.parse("--xyz".split(" "));
+		assertTrue(result.getUnknownArguments().get("xyz").getSuggestions().isEmpty());
+	}
+
+	/**
+	 * Creates a short name of a few different characters, thus names
+	 * which are close to each other are common
+	 *
+	 * @param random
+	 * @return
+	 */
+	private static String createName(Random random) {
+		char[] name = new char[random.nextInt(10)];
+
+		for (int i = 0; i < name.length; i++) {
+			name[i] = (char)('a' + random.nextInt(3));
+		}
+
+		return new String(name);
+	}
+
+}
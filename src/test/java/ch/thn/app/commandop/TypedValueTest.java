@@ -0,0 +1,98 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import ch.thn.app.commandop.converter.CommandOPConverters;
+
+public class TypedValueTest {
+
+	private enum Mode { FAST, SAFE }
+
+	@Test
+	public void testTypedValues() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("threads", "4", "").setAsInt();
+		cmdop.addOption("limit", "").setAsLong();
+		cmdop.addOption("ratio", "").setAsDouble();
+		cmdop.addOption("mode", "safe", "").setAsEnum(Mode.class);
+		cmdop.addOption("verbose", "").setAsBoolean();
+		cmdop.addOption("ports", "").setAsInt().setAsMultiValueItem();
+		CommandOPSchema schema = cmdop.compile();
+
+		CommandOPResult result = schema.parse("--limit=5000000000 --ratio=0.5 --mode=FAST --verbose=TRUE --ports 80 443".split(" "));
+
+		assertFalse(result.hasErrors());
+		//The default value
+		assertEquals(4, result.getIntValue(schema.getOption("threads")));
+		assertEquals(5000000000L, result.getLongValue(schema.getOption("limit")));
+		assertEquals(0.5, result.getDoubleValue(schema.getOption("ratio")), 0.0);
+		assertEquals(Mode.FAST, result.getEnumValue(schema.getOption("mode"), Mode.class));
+		assertTrue(result.getBooleanValue(schema.getOption("verbose")));
+		assertEquals(443, result.getIntValue(schema.getOption("ports"), 1));
+		assertEquals("<int>", "<" + schema.getOption("threads").getTypeString() + ">");
+
+		result = schema.parse("--threads=many".split(" "));
+		assertEquals(1, result.getErrorMessages().size());
+		assertTrue(result.getErrorMessages().get(0).contains("not a valid int"));
+
+		try {
+			result.getIntValue(schema.getOption("ratio"));
+			fail("A double item has no int values");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+	}
+
+	@Test
+	public void testTypeChange() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		CmdLnOption verbose = cmdop.addOption("verbose", "");
+		verbose.setAsBoolean();
+		CmdLnOption timeout = cmdop.addOption("timeout", "");
+		timeout.setConverter(CommandOPConverters.DURATION);
+
+		try {
+			verbose.setAsInt();
+			fail("A boolean item can not get another type");
+		} catch (CommandOPError e) {
+			assertTrue(e.getMessage().contains("'verbose' is a boolean item"));
+		}
+
+		try {
+			verbose.setConverter(CommandOPConverters.DURATION);
+			fail("A boolean item can not get a converter");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+
+		try {
+			timeout.setAsLong();
+			fail("An item with a converter can not get another type");
+		} catch (CommandOPError e) {
+			assertTrue(e.getMessage().contains("'timeout' are converted"));
+		}
+
+		try {
+			timeout.setAsBoolean();
+			fail("An item with a converter can not become a boolean item");
+		} catch (CommandOPError e) {
+			//Expected
+		}
+
+		//The items are left as they are
+		CommandOPSchema schema = cmdop.compile();
+		CommandOPResult result = schema.parse("--verbose --timeout=2s".split(" "));
+
+		assertFalse(result.hasErrors());
+		assertTrue(result.getBooleanValue(verbose));
+		assertEquals(Long.valueOf(2000), result.getConvertedValue(timeout, Long.class));
+
+		//Other types can be changed
+		cmdop = new CommandOP();
+		cmdop.addOption("ratio", "1", "").setAsInt().setAsDouble();
+		assertEquals(1.0, cmdop.compile().parse(new String[0]).getDoubleValue(cmdop.getOption("ratio")), 0.0);
+	}
+
+}
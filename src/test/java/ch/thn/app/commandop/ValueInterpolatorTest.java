@@ -0,0 +1,66 @@
+package ch.thn.app.commandop;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ValueInterpolatorTest {
+
+	@Test
+	public void testReferences() throws Exception {
+		System.setProperty("commandop.test.port", "8080");
+
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("basedir", "");
+		cmdop.addOption("logdir", "");
+		cmdop.addOption("port", "").setAsInt();
+		cmdop.addOption("server", "").addParameter("host", "");
+		cmdop.addOption("url", "");
+		cmdop.addOption("literal", "");
+		cmdop.useInterpolation(true);
+
+		//References are resolved regardless of the argument order
+		assertTrue(cmdop.parse(Arrays.asList("--logdir=${basedir}/logs", "--basedir=/opt/app",
+				"--port=${commandop.test.port}", "--url=http://${server.host}:${port}/",
+				"--server", "host=node1", "--literal=$${basedir} ${unclosed"), false));
+
+		assertEquals("/opt/app/logs", cmdop.getOption("logdir").getValue());
+		assertEquals("8080", cmdop.getOption("port").getValue());
+		assertEquals("http://node1:8080/", cmdop.getOption("url").getValue());
+		assertEquals("${basedir} ${unclosed", cmdop.getOption("literal").getValue());
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("a", "");
+		cmdop.addOption("b", "");
+		cmdop.addOption("c", "");
+		cmdop.addOption("number", "").setAsInt();
+		cmdop.useInterpolation(true);
+
+		assertFalse(cmdop.parse(Arrays.asList("--a=${b}", "--b=x${a}", "--c=${a}"), false));
+		assertTrue(cmdop.getErrorMessages().get(0).contains("a -> b -> a"));
+
+		cmdop.reset();
+		assertFalse(cmdop.parse(Arrays.asList("--a=${commandop.test.unknown}"), false));
+		assertTrue(cmdop.getErrorMessages().get(0).contains("Unknown reference '${commandop.test.unknown}'"));
+
+		//The resolved value is validated
+		cmdop.reset();
+		assertFalse(cmdop.parse(Arrays.asList("--a=many", "--number=${a}"), false));
+		assertTrue(cmdop.getErrorMessages().get(0).contains("not a valid int"));
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		CommandOP cmdop = new CommandOP();
+		cmdop.addOption("a", "");
+
+		assertTrue(cmdop.parse(Arrays.asList("--a=${commandop.test.unknown}"), false));
+		assertEquals("${commandop.test.unknown}", cmdop.getOption("a").getValue());
+	}
+
+}